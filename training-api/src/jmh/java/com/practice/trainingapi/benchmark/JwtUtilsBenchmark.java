@@ -0,0 +1,62 @@
+package com.practice.trainingapi.benchmark;
+
+import com.practice.trainingapi.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private String bearer;
+
+    @Setup
+    public void setUp() {
+        bearer = JwtUtils.JWT_BEARER + JwtUtils.createToken("benchmark@email.com", "ADMIN").getToken();
+        JwtUtils.verify(bearer);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return JwtUtils.createToken("benchmark@email.com", "ADMIN").getToken();
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return JwtUtils.verify(bearer);
+    }
+
+    // What a request paid before: a new key and parser for isTokenValid, then again for getUsernameFromToken
+    @Benchmark
+    public Claims verifyLegacy() {
+        String jws = bearer.substring(JwtUtils.JWT_BEARER.length());
+        legacyParse(jws);
+        return legacyParse(jws);
+    }
+
+    private static Claims legacyParse(String jws) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(JwtUtils.SECRET_KEY.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(jws)
+                .getPayload();
+    }
+}
@@ -0,0 +1,130 @@
+package com.practice.trainingapi.benchmark;
+
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.entity.ClientVacancy;
+import com.practice.trainingapi.entity.User;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.web.dto.ClientResponseDto;
+import com.practice.trainingapi.web.dto.ParkingResponseDto;
+import com.practice.trainingapi.web.dto.UserResponseDTO;
+import com.practice.trainingapi.web.dto.VacancyResponseDto;
+import com.practice.trainingapi.web.dto.mapper.ClientMapper;
+import com.practice.trainingapi.web.dto.mapper.ClientVacancyMapper;
+import com.practice.trainingapi.web.dto.mapper.UserMapper;
+import com.practice.trainingapi.web.dto.mapper.VacancyMapper;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.PropertyMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Each hand-written mapper against the per-call ModelMapper it replaced
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private User user;
+    private Client client;
+    private Vacancy vacancy;
+    private ClientVacancy clientVacancy;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(3L);
+        user.setUsername("benchmark@email.com");
+        user.setRole(User.Role.ROLE_USER);
+
+        client = new Client();
+        client.setId(2L);
+        client.setName("Benchmark Client");
+        client.setCpf("53280465081");
+
+        vacancy = new Vacancy();
+        vacancy.setId(1L);
+        vacancy.setCode("V001");
+        vacancy.setStatus(Vacancy.StatusVacancy.BUSY);
+        vacancy.setZone("B");
+        vacancy.setLevel(2);
+        vacancy.setType(Vacancy.SpotType.EV);
+        vacancy.setDistance(40);
+
+        LocalDateTime entry = LocalDateTime.of(2024, 3, 1, 8, 0);
+        clientVacancy = new ClientVacancy();
+        clientVacancy.setPlate("ABC-1234");
+        clientVacancy.setBrand("FIAT");
+        clientVacancy.setModel("PALIO");
+        clientVacancy.setColor("BLUE");
+        clientVacancy.setReceipt("20240301-080000");
+        clientVacancy.setEntryDate(entry);
+        clientVacancy.setDepartureDate(entry.plusHours(2));
+        clientVacancy.setValue(new BigDecimal("16.25"));
+        clientVacancy.setDiscount(new BigDecimal("1.62"));
+        clientVacancy.setClient(client);
+        clientVacancy.setVacancy(vacancy);
+    }
+
+    @Benchmark
+    public UserResponseDTO user() {
+        return UserMapper.toDto(user);
+    }
+
+    @Benchmark
+    public UserResponseDTO userModelMapper() {
+        String role = user.getRole().name().substring("ROLE_".length());
+        PropertyMap<User, UserResponseDTO> props = new PropertyMap<User, UserResponseDTO>() {
+            @Override
+            protected void configure() {
+                map().setRole(role);
+            }
+        };
+        ModelMapper mapper = new ModelMapper();
+        mapper.addMappings(props);
+        return mapper.map(user, UserResponseDTO.class);
+    }
+
+    @Benchmark
+    public ClientResponseDto client() {
+        return ClientMapper.toDto(client);
+    }
+
+    @Benchmark
+    public ClientResponseDto clientModelMapper() {
+        return new ModelMapper().map(client, ClientResponseDto.class);
+    }
+
+    @Benchmark
+    public VacancyResponseDto vacancy() {
+        return VacancyMapper.toDto(vacancy);
+    }
+
+    @Benchmark
+    public VacancyResponseDto vacancyModelMapper() {
+        return new ModelMapper().map(vacancy, VacancyResponseDto.class);
+    }
+
+    @Benchmark
+    public ParkingResponseDto parking() {
+        return ClientVacancyMapper.toDto(clientVacancy);
+    }
+
+    @Benchmark
+    public ParkingResponseDto parkingModelMapper() {
+        return new ModelMapper().map(clientVacancy, ParkingResponseDto.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.practice.trainingapi.benchmark;
+
+import com.practice.trainingapi.util.ParkingUtils;
+import com.practice.trainingapi.util.TariffPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TariffPlanBenchmark {
+
+    @Param({"10", "45", "135", "1500"})
+    public long minutes;
+
+    private LocalDateTime entry;
+    private LocalDateTime departure;
+
+    @Setup
+    public void setUp() {
+        entry = LocalDateTime.of(2024, 5, 10, 14, 30);
+        departure = entry.plusMinutes(minutes);
+    }
+
+    @Benchmark
+    public BigDecimal costAndDiscount() {
+        BigDecimal cost = ParkingUtils.calculateCost(entry, departure);
+        return ParkingUtils.calculateDiscount(cost, 10);
+    }
+
+    @Benchmark
+    public long costAndDiscountInCents() {
+        long cost = TariffPlan.STANDARD.cost(entry, departure);
+        return TariffPlan.STANDARD.discount(cost, 10);
+    }
+
+    @Benchmark
+    public BigDecimal legacyCostAndDiscount() {
+        BigDecimal cost = legacyCost(entry, departure);
+        return legacyDiscount(cost, 10);
+    }
+
+    // ParkingUtils before the tariff engine, kept verbatim as the baseline
+    private static BigDecimal legacyCost(LocalDateTime entry, LocalDateTime departure) {
+        long minutes = entry.until(departure, ChronoUnit.MINUTES);
+        double total = 0.0;
+        if (minutes <= 15) {
+            total = 5.00;
+        } else if (minutes <= 60) {
+            total = 9.25;
+        } else {
+            long addicionalMinutes = minutes - 60;
+            Double totalParts = ((double) addicionalMinutes / 15);
+            if (totalParts > totalParts.intValue()) {
+                total += 9.25 + (1.75 * (totalParts.intValue() + 1));
+            } else {
+                total += 9.25 + (1.75 * totalParts.intValue());
+            }
+        }
+        return new BigDecimal(total).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private static BigDecimal legacyDiscount(BigDecimal cost, long numberOfTimes) {
+        BigDecimal discount = ((numberOfTimes > 0) && (numberOfTimes % 10 == 0)) ? cost.multiply(new BigDecimal(0.30)) : new BigDecimal(0);
+        return discount.setScale(2, RoundingMode.HALF_EVEN);
+    }
+}
@@ -1,9 +1,12 @@
 package com.practice.trainingapi;
 
+import com.practice.trainingapi.repository.NaturalIdJpaRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
+@EnableJpaRepositories(repositoryBaseClass = NaturalIdJpaRepository.class)
 public class TrainingApiApplication {
 
 	public static void main(String[] args) {
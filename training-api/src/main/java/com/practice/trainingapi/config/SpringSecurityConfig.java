@@ -2,6 +2,9 @@ package com.practice.trainingapi.config;
 
 import com.practice.trainingapi.jwt.JwtAuthenticationEntryPoint;
 import com.practice.trainingapi.jwt.JwtAuthorizationFilter;
+import com.practice.trainingapi.jwt.JwtUtils;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -36,8 +39,9 @@ public class SpringSecurityConfig {
                 .formLogin(form -> form.disable())
                 .httpBasic(basic -> basic.disable())
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers(HttpMethod.POST, "api/v1/users").permitAll()
-                        .requestMatchers(HttpMethod.POST, "api/v1/auth").permitAll()
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/users/create").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/auth").permitAll()
                         .requestMatchers(DOCUMENTATION_OPENAPI).permitAll()
                         .anyRequest().authenticated()
                 ).sessionManagement(
@@ -54,6 +58,11 @@ public class SpringSecurityConfig {
         return new JwtAuthorizationFilter();
     }
 
+    @Bean
+    public MeterBinder jwtCacheMetrics() {
+        return JwtUtils::bindMetrics;
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
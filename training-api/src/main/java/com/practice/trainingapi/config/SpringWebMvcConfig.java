@@ -0,0 +1,15 @@
+package com.practice.trainingapi.config;
+
+import com.practice.trainingapi.service.CountMode;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class SpringWebMvcConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, CountMode.class, CountMode::from);
+    }
+}
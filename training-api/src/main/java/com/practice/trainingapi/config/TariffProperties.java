@@ -0,0 +1,42 @@
+package com.practice.trainingapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "parking.tariff")
+public class TariffProperties {
+
+    private String defaultPlan = "standard";
+    private Map<String, Plan> plans = new HashMap<>(Map.of("standard", new Plan()));
+    private Night night = new Night();
+    // Plan name per vacancy type name, types left out are charged by the default or night plan
+    private Map<String, String> types = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Plan {
+        private long firstFifteenMinutes = 500;
+        private long firstHour = 925;
+        private long additionalFifteenMinutes = 175;
+        private long dailyCap = 0;
+        private int discountPercentage = 30;
+        private int discountEvery = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class Night {
+        private String plan;
+        private LocalTime start = LocalTime.of(22, 0);
+        private LocalTime end = LocalTime.of(6, 0);
+    }
+}
@@ -3,6 +3,12 @@ package com.practice.trainingapi.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -18,18 +24,26 @@ import java.util.Objects;
 @Entity
 @Table(name="clients")
 @EntityListeners(AuditingEntityListener.class)
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clients")
+@NaturalIdCache(region = "clients-by-cpf")
 public class Client implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clients_seq")
+    @SequenceGenerator(name = "clients_seq", sequenceName = "clients_seq", allocationSize = 50)
     private Long id;
     @Column(name = "name", nullable = false, length = 100)
     private String name;
+    @NaturalId
     @Column(name = "CPF", nullable = false, unique = true, length = 11)
     private String cpf;
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_user")
     private User user;
+    @ColumnDefault("0")
+    @Column(name = "completed_visits", nullable = false)
+    private long completedVisits;
 
     @CreatedDate
     @Column(name = "creation_date")
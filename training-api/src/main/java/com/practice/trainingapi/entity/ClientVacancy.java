@@ -15,11 +15,16 @@ import java.util.Objects;
 @Getter
 @Setter
 @Entity
-@Table(name = "customers_has_vacancies")
+@Table(name = "customers_has_vacancies", indexes = {
+        @Index(name = "idx_customers_has_vacancies_plate", columnList = "placa, entry_date"),
+        @Index(name = "idx_customers_has_vacancies_entry", columnList = "entry_date"),
+        @Index(name = "idx_customers_has_vacancies_client_entry", columnList = "id_client, entry_date, id")
+})
 public class ClientVacancy {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_has_vacancies_seq")
+    @SequenceGenerator(name = "customers_has_vacancies_seq", sequenceName = "customers_has_vacancies_seq", allocationSize = 50)
     private Long id;
     @Column(name = "numero_recibo", nullable = false, unique = true)
     private String receipt;
@@ -33,16 +38,16 @@ public class ClientVacancy {
     private String color;
     @Column(name = "entry_date", nullable = false)
     private LocalDateTime entryDate;
-    @Column(name = "departure_date", nullable = false)
+    @Column(name = "departure_date")
     private LocalDateTime departureDate;
     @Column(name = "valor", columnDefinition = "decimal(7,2)")
     private BigDecimal value;
     @Column(name = "desconto", columnDefinition = "decimal(7,2)")
     private BigDecimal discount;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_client", nullable = false)
     private Client client;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn
     private Vacancy vacancy;
 
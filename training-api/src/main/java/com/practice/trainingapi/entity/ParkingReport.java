@@ -0,0 +1,53 @@
+package com.practice.trainingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "parking_reports", indexes = @Index(name = "idx_parking_reports_occurred_at", columnList = "occurred_at"))
+public class ParkingReport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parking_reports_seq")
+    @SequenceGenerator(name = "parking_reports_seq", sequenceName = "parking_reports_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String eventType;
+    @Column(name = "numero_recibo", nullable = false)
+    private String receipt;
+    @Column(name = "client_cpf", nullable = false, length = 11)
+    private String clientCpf;
+    @Column(name = "vacancy_code", nullable = false, length = 4)
+    private String vacancyCode;
+    @Column(name = "entry_date")
+    private LocalDateTime entryDate;
+    @Column(name = "departure_date")
+    private LocalDateTime departureDate;
+    @Column(name = "valor", columnDefinition = "decimal(7,2)")
+    private BigDecimal value;
+    @Column(name = "desconto", columnDefinition = "decimal(7,2)")
+    private BigDecimal discount;
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ParkingReport that = (ParkingReport) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
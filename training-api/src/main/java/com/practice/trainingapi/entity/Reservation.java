@@ -0,0 +1,52 @@
+package com.practice.trainingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "reservations", indexes = @Index(name = "idx_reservations_status", columnList = "status, expires_at"))
+public class Reservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+    @SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "code", nullable = false, unique = true, length = 14)
+    private String code;
+    @ManyToOne
+    @JoinColumn(name = "id_client", nullable = false)
+    private Client client;
+    @ManyToOne
+    @JoinColumn(name = "id_vacancy", nullable = false)
+    private Vacancy vacancy;
+    @Column(name = "status", nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.ACTIVE;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public enum Status {
+        ACTIVE, CONVERTED, EXPIRED, CANCELLED
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Reservation that = (Reservation) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
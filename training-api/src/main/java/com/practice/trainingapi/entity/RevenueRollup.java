@@ -0,0 +1,60 @@
+package com.practice.trainingapi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "revenue_rollups")
+@IdClass(RevenueRollup.Key.class)
+public class RevenueRollup {
+
+    @Id
+    @Column(name = "granularity", length = 5)
+    @Enumerated(EnumType.STRING)
+    private Granularity granularity;
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+    @Id
+    @Column(name = "zone", length = 10)
+    private String zone;
+    @Column(name = "sessions", nullable = false)
+    private long sessions;
+    @Column(name = "revenue_cents", nullable = false)
+    private long revenueCents;
+    @Column(name = "discount_cents", nullable = false)
+    private long discountCents;
+
+    public enum Granularity {
+        HOUR, DAY;
+
+        public LocalDateTime bucketOf(LocalDateTime dateTime) {
+            return dateTime.truncatedTo(this == HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        private Granularity granularity;
+        private LocalDateTime bucketStart;
+        private String zone;
+
+    }
+}
@@ -3,6 +3,11 @@ package com.practice.trainingapi.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -16,14 +21,20 @@ import java.util.Objects;
 @Getter
 @Setter
 @Entity
-@Table(name = "vacancies")
+@Table(name = "vacancies", indexes = {
+        @Index(name = "idx_vacancies_allocation", columnList = "status, spot_type, distance")
+})
 @EntityListeners(AuditingEntityListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vacancies")
+@NaturalIdCache(region = "vacancies-by-code")
 public class Vacancy implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vacancies_seq")
+    @SequenceGenerator(name = "vacancies_seq", sequenceName = "vacancies_seq", allocationSize = 50)
     private Long id;
 
+    @NaturalId
     @Column(name = "code", nullable = false, unique = true, length = 4)
     private String code;
 
@@ -31,6 +42,24 @@ public class Vacancy implements Serializable {
     @Enumerated(EnumType.STRING)
     private StatusVacancy status;
 
+    @ColumnDefault("'A'")
+    @Column(name = "zone", nullable = false, length = 10)
+    private String zone = "A";
+
+    @ColumnDefault("0")
+    @Column(name = "level_number", nullable = false)
+    private int level;
+
+    @ColumnDefault("'STANDARD'")
+    @Column(name = "spot_type", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private SpotType type = SpotType.STANDARD;
+
+    // Walking distance from the zone entrance, the allocator hands out the nearest free spot first
+    @ColumnDefault("0")
+    @Column(name = "distance", nullable = false)
+    private int distance;
+
     @CreatedDate
     @Column(name = "creation_date")
     private LocalDateTime creationDate;
@@ -48,7 +77,11 @@ public class Vacancy implements Serializable {
     private String modifiedBy;
 
     public enum StatusVacancy {
-        FREE, BUSY
+        FREE, BUSY, RESERVED
+    }
+
+    public enum SpotType {
+        STANDARD, EV, DISABLED, MOTORCYCLE
     }
 
     @Override
@@ -0,0 +1,30 @@
+package com.practice.trainingapi.event;
+
+import com.practice.trainingapi.entity.ClientVacancy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class CheckedInEvent implements ParkingEvent {
+
+    private final String receipt;
+    private final String clientCpf;
+    private final String vacancyCode;
+    private final String plate;
+    private final LocalDateTime entryDate;
+    private final Instant occurredAt;
+
+    public static CheckedInEvent of(ClientVacancy clientVacancy) {
+        return new CheckedInEvent(clientVacancy.getReceipt(), clientVacancy.getClient().getCpf(),
+                clientVacancy.getVacancy().getCode(), clientVacancy.getPlate(), clientVacancy.getEntryDate(), Instant.now());
+    }
+
+    @Override
+    public String getType() {
+        return "CHECKED_IN";
+    }
+}
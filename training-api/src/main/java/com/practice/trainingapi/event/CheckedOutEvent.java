@@ -0,0 +1,35 @@
+package com.practice.trainingapi.event;
+
+import com.practice.trainingapi.entity.ClientVacancy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class CheckedOutEvent implements ParkingEvent {
+
+    private final String receipt;
+    private final String clientCpf;
+    private final String vacancyCode;
+    private final String vacancyZone;
+    private final LocalDateTime entryDate;
+    private final LocalDateTime departureDate;
+    private final BigDecimal value;
+    private final BigDecimal discount;
+    private final Instant occurredAt;
+
+    public static CheckedOutEvent of(ClientVacancy clientVacancy) {
+        return new CheckedOutEvent(clientVacancy.getReceipt(), clientVacancy.getClient().getCpf(),
+                clientVacancy.getVacancy().getCode(), clientVacancy.getVacancy().getZone(), clientVacancy.getEntryDate(), clientVacancy.getDepartureDate(),
+                clientVacancy.getValue(), clientVacancy.getDiscount(), Instant.now());
+    }
+
+    @Override
+    public String getType() {
+        return "CHECKED_OUT";
+    }
+}
@@ -0,0 +1,16 @@
+package com.practice.trainingapi.event;
+
+import java.time.Instant;
+
+public interface ParkingEvent {
+
+    String getType();
+
+    String getReceipt();
+
+    String getClientCpf();
+
+    String getVacancyCode();
+
+    Instant getOccurredAt();
+}
@@ -0,0 +1,143 @@
+package com.practice.trainingapi.event;
+
+import com.practice.trainingapi.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Every consumer drains its own bounded ring buffer on a dedicated thread, so a slow consumer
+// never delays the gate request or the other consumers. When a buffer is full the event is dropped and counted.
+// On shutdown the buffers are drained for up to parking.events.shutdown-timeout-ms before the workers are interrupted.
+@Slf4j
+@Component
+public class ParkingEventBus {
+
+    private final List<Worker> workers = new ArrayList<>();
+    private final long shutdownTimeoutMillis;
+
+    public ParkingEventBus(List<ParkingEventConsumer> consumers, MeterRegistry meterRegistry,
+                           @Value("${parking.events.capacity:8192}") int capacity,
+                           @Value("${parking.events.batch-size:256}") int batchSize,
+                           @Value("${parking.events.shutdown-timeout-ms:5000}") long shutdownTimeoutMillis) {
+        for (ParkingEventConsumer consumer : consumers) {
+            workers.add(new Worker(consumer, capacity, batchSize, meterRegistry));
+        }
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    public void publish(ParkingEvent event) {
+        TransactionUtils.afterCommit(() -> workers.forEach(worker -> worker.offer(event)));
+    }
+
+    @PostConstruct
+    public void start() {
+        workers.forEach(Worker::start);
+    }
+
+    // The deadline is shared, so shutdown takes at most shutdownTimeoutMillis however many consumers there are
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        workers.forEach(Worker::stop);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        for (Worker worker : workers) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (!worker.await(Math.max(remaining, 1))) {
+                log.warn("Parking event consumer '{}' did not drain in {} ms, {} events left undelivered",
+                        worker.consumer.getName(), shutdownTimeoutMillis, worker.queue.size());
+                worker.interrupt();
+            }
+        }
+    }
+
+    private static class Worker implements Runnable {
+
+        // How often an idle worker notices it was stopped
+        private static final long POLL_MILLIS = 100;
+
+        private final ParkingEventConsumer consumer;
+        private final BlockingQueue<ParkingEvent> queue;
+        private final int batchSize;
+        private final Counter dropped;
+        private final Counter consumed;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        Worker(ParkingEventConsumer consumer, int capacity, int batchSize, MeterRegistry meterRegistry) {
+            this.consumer = consumer;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.batchSize = batchSize;
+            this.dropped = Counter.builder("parking.events.dropped").tag("consumer", consumer.getName()).register(meterRegistry);
+            this.consumed = Counter.builder("parking.events.consumed").tag("consumer", consumer.getName()).register(meterRegistry);
+            Gauge.builder("parking.events.queue.depth", queue, BlockingQueue::size)
+                    .tag("consumer", consumer.getName()).register(meterRegistry);
+            Gauge.builder("parking.events.consumer.lag", this, Worker::lagSeconds)
+                    .tag("consumer", consumer.getName()).baseUnit("seconds").register(meterRegistry);
+            this.thread = new Thread(this, "parking-events-" + consumer.getName());
+            this.thread.setDaemon(true);
+        }
+
+        void offer(ParkingEvent event) {
+            if (!queue.offer(event)) {
+                dropped.increment();
+            }
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+        }
+
+        boolean await(long millis) throws InterruptedException {
+            thread.join(millis);
+            return !thread.isAlive();
+        }
+
+        void interrupt() {
+            thread.interrupt();
+        }
+
+        double lagSeconds() {
+            ParkingEvent oldest = queue.peek();
+            return oldest == null ? 0 : Duration.between(oldest.getOccurredAt(), Instant.now()).toMillis() / 1000.0;
+        }
+
+        @Override
+        public void run() {
+            List<ParkingEvent> batch = new ArrayList<>(batchSize);
+            while ((running || !queue.isEmpty()) && !Thread.currentThread().isInterrupted()) {
+                try {
+                    ParkingEvent first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    consumer.consume(batch);
+                    consumed.increment(batch.size());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException ex) {
+                    log.error("Parking event consumer '{}' failed on a batch of {} events: {}", consumer.getName(), batch.size(), ex.getMessage());
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.practice.trainingapi.event;
+
+import java.util.List;
+
+public interface ParkingEventConsumer {
+
+    String getName();
+
+    void consume(List<ParkingEvent> events);
+}
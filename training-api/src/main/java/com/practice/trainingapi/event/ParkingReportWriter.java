@@ -0,0 +1,50 @@
+package com.practice.trainingapi.event;
+
+import com.practice.trainingapi.entity.ParkingReport;
+import com.practice.trainingapi.repository.ParkingReportRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+@Component
+public class ParkingReportWriter implements ParkingEventConsumer {
+
+    private final ParkingReportRepository parkingReportRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public String getName() {
+        return "report-writer";
+    }
+
+    @Override
+    public void consume(List<ParkingEvent> events) {
+        List<ParkingReport> reports = new ArrayList<>(events.size());
+        for (ParkingEvent event : events) {
+            reports.add(toReport(event));
+        }
+        transactionTemplate.executeWithoutResult(status -> parkingReportRepository.saveAll(reports));
+    }
+
+    private ParkingReport toReport(ParkingEvent event) {
+        ParkingReport report = new ParkingReport();
+        report.setEventType(event.getType());
+        report.setReceipt(event.getReceipt());
+        report.setClientCpf(event.getClientCpf());
+        report.setVacancyCode(event.getVacancyCode());
+        report.setOccurredAt(event.getOccurredAt());
+        if (event instanceof CheckedInEvent checkedIn) {
+            report.setEntryDate(checkedIn.getEntryDate());
+        } else if (event instanceof CheckedOutEvent checkedOut) {
+            report.setEntryDate(checkedOut.getEntryDate());
+            report.setDepartureDate(checkedOut.getDepartureDate());
+            report.setValue(checkedOut.getValue());
+            report.setDiscount(checkedOut.getDiscount());
+        }
+        return report;
+    }
+}
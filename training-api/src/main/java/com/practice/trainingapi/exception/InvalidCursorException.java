@@ -0,0 +1,9 @@
+package com.practice.trainingapi.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String msg) {
+        super(msg);
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.practice.trainingapi.exception;
+
+public class RebuildInProgressException extends RuntimeException {
+    public RebuildInProgressException(String msg) {
+        super(msg);
+    }
+}
@@ -1,19 +1,51 @@
 package com.practice.trainingapi.jwt;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+@Slf4j
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
+    @Autowired
+    private JwtUserDetailsService detailsService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        final String token = request.getHeader(JwtUtils.JWT_AUTHORIZATION);
+        if (token == null || !token.startsWith(JwtUtils.JWT_BEARER)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
+        // Verified once per request, repeated requests with the same token are answered by the verified-token cache
+        Claims claims = JwtUtils.verify(token);
+        if (claims == null) {
+            log.warn("JWT Token invalid or expired");
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        toAuthentication(request, claims.getSubject());
+        filterChain.doFilter(request, response);
+    }
+
+    private void toAuthentication(HttpServletRequest request, String username) {
+        UserDetails userDetails = detailsService.loadUserByUsername(username);
+        UsernamePasswordAuthenticationToken authenticationToken = UsernamePasswordAuthenticationToken
+                .authenticated(userDetails, null, userDetails.getAuthorities());
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
     }
 }
@@ -8,7 +8,7 @@ public class JwtUserDetails extends org.springframework.security.core.userdetail
     private User user;
 
     public JwtUserDetails(User user) {
-        super(user.getUsername(), user.getPassword(), AuthorityUtils.createAuthorityList());
+        super(user.getUsername(), user.getPassword(), AuthorityUtils.createAuthorityList(user.getRole().name()));
         this.user = user;
     }
 
@@ -2,17 +2,26 @@ package com.practice.trainingapi.jwt;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.Charset;
+import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 public class JwtUtils {
@@ -23,13 +32,20 @@ public class JwtUtils {
     public static final long EXPIRE_DAYS = 0;
     public static final long EXPIRE_HOURS = 0;
     public static final long EXPIRE_MINUTES = 2;
+    public static final int VERIFIED_CACHE_SIZE = 10_000;
 
-    private JwtUtils() {
+    // The key and the parser are immutable and thread safe, they are built once and shared by every request
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+    private static final JwtParser PARSER = Jwts.parser().verifyWith(KEY).build();
 
-    }
+    // Claims of tokens already verified, keyed by the SHA-256 of the token so no bearer token is kept in memory.
+    // An entry is only trusted until the token's own expiration.
+    private static final Map<String, VerifiedToken> VERIFIED = new ConcurrentHashMap<>();
+    private static final LongAdder CACHE_HITS = new LongAdder();
+    private static final LongAdder CACHE_MISSES = new LongAdder();
+
+    private JwtUtils() {
 
-    private static Key generateKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
     }
 
     private static Date toExpireDate(Date start) {
@@ -41,11 +57,11 @@ public class JwtUtils {
     public static JwtToken createToken(String username, String role) {
         Date issuedAt = new Date();
         Date limit = toExpireDate(issuedAt);
-        String token = Jwts.builder().setHeaderParam("typ", "JWT")
-                .setSubject(username)
-                .setIssuedAt(issuedAt)
-                .setExpiration(limit)
-                .signWith(generateKey(), SignatureAlgorithm.HS256)
+        String token = Jwts.builder().header().add("typ", "JWT").and()
+                .subject(username)
+                .issuedAt(issuedAt)
+                .expiration(limit)
+                .signWith(KEY)
                 .claim("role", role)
                 .compact();
 
@@ -53,27 +69,73 @@ public class JwtUtils {
 
     }
 
-    private static Claims getClaimsFromToken(String token) {
+    // Claims of a valid token, null when the token is invalid or expired
+    public static Claims verify(String token) {
+        String jws = refactorToken(token);
+        String key = hash(jws);
+        long now = System.currentTimeMillis();
+        VerifiedToken verified = VERIFIED.get(key);
+        if (verified != null && verified.expiresAt > now) {
+            CACHE_HITS.increment();
+            return verified.claims;
+        }
+        CACHE_MISSES.increment();
         try {
-            return Jwts.parser().setSigningKey(generateKey()).build().parseClaimsJws(refactorToken(token)).getBody();
+            Claims claims = PARSER.parseSignedClaims(jws).getPayload();
+            remember(key, claims, now);
+            return claims;
         } catch (JwtException e) {
+            VERIFIED.remove(key);
             log.error(String.format("Token inválido %s", e.getMessage()));
         }
         return null;
     }
 
     public static String getUsernameFromToken(String token) {
-        return getClaimsFromToken(token).getSubject();
+        return verify(token).getSubject();
     }
 
     public static boolean isTokenValid(String token) {
+        return verify(token) != null;
+    }
+
+    // Hits and misses of the verified-token cache, the hit rate is also published as a ratio
+    public static void bindMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.verified.cache.requests", CACHE_HITS, LongAdder::sum)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("jwt.verified.cache.requests", CACHE_MISSES, LongAdder::sum)
+                .tag("result", "miss").register(registry);
+        Gauge.builder("jwt.verified.cache.hit.ratio", JwtUtils::hitRatio).register(registry);
+        Gauge.builder("jwt.verified.cache.size", VERIFIED, Map::size).register(registry);
+    }
+
+    private static double hitRatio() {
+        long hits = CACHE_HITS.sum();
+        long total = hits + CACHE_MISSES.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    private static void remember(String key, Claims claims, long now) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return;
+        }
+        if (VERIFIED.size() >= VERIFIED_CACHE_SIZE) {
+            VERIFIED.values().removeIf(cached -> cached.expiresAt <= now);
+            if (VERIFIED.size() >= VERIFIED_CACHE_SIZE) {
+                return;
+            }
+        }
+        VERIFIED.put(key, new VerifiedToken(claims, expiration.getTime()));
+    }
+
+    private static String hash(String jws) {
         try {
-            Jwts.parser().setSigningKey(generateKey()).build().parseClaimsJws(refactorToken(token));
-            return true;
-        } catch (JwtException e) {
-            log.error(String.format("Token inválido %s", e.getMessage()));
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jws.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        return false;
     }
 
     private static String refactorToken(String token) {
@@ -82,4 +144,10 @@ public class JwtUtils {
         }
         return token;
     }
+
+    @AllArgsConstructor
+    private static class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAt;
+    }
 }
@@ -2,20 +2,37 @@ package com.practice.trainingapi.repository;
 
 import com.practice.trainingapi.entity.Client;
 import com.practice.trainingapi.repository.projection.ClientProjection;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
-public interface ClientRepository extends JpaRepository<Client, Long> {
+public interface ClientRepository extends NaturalIdRepository<Client, Long> {
 
-    @Query("select c from Client c")
-    Page<ClientProjection> findAllPageable(Pageable pageable);
+    @Query("select c.id as id, c.name as name, c.cpf as cpf from Client c")
+    Stream<ClientProjection> streamAll(Pageable pageable);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "clients-by-user")})
     Client findByUserId(Long id);
 
-    Optional<Client> findByCpf(String cpf);
+    List<Client> findAllByCpfIn(Collection<String> cpfs);
+
+    @Query("select min(c.id) from Client c")
+    Long findMinId();
+
+    @Query("select max(c.id) from Client c")
+    Long findMaxId();
+
+    @Modifying
+    @Query("update Client c set c.completedVisits = (select count(cv) from ClientVacancy cv " +
+            "where cv.client = c and cv.departureDate is not null) where c.id between :from and :to")
+    int reconcileCompletedVisits(Long from, Long to);
 
 }
@@ -0,0 +1,258 @@
+package com.practice.trainingapi.repository;
+
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.entity.ClientVacancy;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.repository.projection.ClientVacancyProjection;
+import com.practice.trainingapi.repository.projection.ClientVacancyRow;
+import com.practice.trainingapi.repository.projection.RevenueRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Closed sessions moved out of customers_has_vacancies. Rows keep their id and carry archive_month (yyyymm of the
+// entry date), the RANGE partition key on MySQL, so a dated read only opens the months it covers.
+@RequiredArgsConstructor
+@Repository
+public class ClientVacancyArchiveRepository {
+
+    public static final String TABLE = "customers_has_vacancies_archive";
+
+    private static final String COLUMNS = "id, numero_recibo, placa, marca, modelo, cor, entry_date, departure_date, " +
+            "valor, desconto, id_client, vacancy_id";
+
+    private static final String TABLE_COLUMNS = "id bigint not null, archive_month int not null, " +
+            "numero_recibo varchar(255) not null, placa varchar(8) not null, marca varchar(45) not null, " +
+            "modelo varchar(45) not null, cor varchar(45) not null, entry_date %1$s not null, " +
+            "departure_date %1$s not null, valor decimal(7,2), desconto decimal(7,2), " +
+            "id_client bigint not null, vacancy_id bigint, primary key (id, archive_month)";
+
+    // One client's sessions from either table, the history reads put the hot and archived halves in a union all
+    private static final String HISTORY = "select cv.id, cv.numero_recibo, cv.placa, cv.marca, cv.modelo, cv.cor, " +
+            "c.cpf, v.code, v.zone, v.level_number, v.spot_type, cv.entry_date, cv.departure_date, cv.valor, " +
+            "cv.desconto from %s cv join clients c on c.id = cv.id_client left join vacancies v on v.id = cv.vacancy_id " +
+            "where %s";
+
+    // ClientVacancyProjection properties a history page can be sorted by
+    private static final Map<String, String> HISTORY_SORT = Map.ofEntries(
+            Map.entry("plate", "placa"), Map.entry("brand", "marca"), Map.entry("model", "modelo"),
+            Map.entry("color", "cor"), Map.entry("clientCpf", "cpf"), Map.entry("receipt", "numero_recibo"),
+            Map.entry("entryDate", "entry_date"), Map.entry("departureDate", "departure_date"),
+            Map.entry("vacancyCode", "code"), Map.entry("value", "valor"), Map.entry("discount", "desconto"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void createTable(boolean partitioned) {
+        if (partitioned) {
+            jdbcTemplate.execute("create table if not exists " + TABLE + " (" + String.format(TABLE_COLUMNS, "datetime(6)") + ", " +
+                    "index idx_chv_archive_client (id_client, entry_date, id), " +
+                    "index idx_chv_archive_entry (entry_date), " +
+                    "index idx_chv_archive_receipt (numero_recibo), " +
+                    "index idx_chv_archive_plate (placa, entry_date)) " +
+                    "partition by range (archive_month) (partition p_future values less than maxvalue)");
+        } else {
+            jdbcTemplate.execute("create table if not exists " + TABLE + " (" + String.format(TABLE_COLUMNS, "timestamp(6)") + ")");
+            jdbcTemplate.execute("create index if not exists idx_chv_archive_client on " + TABLE + " (id_client, entry_date, id)");
+            jdbcTemplate.execute("create index if not exists idx_chv_archive_entry on " + TABLE + " (entry_date)");
+            jdbcTemplate.execute("create index if not exists idx_chv_archive_receipt on " + TABLE + " (numero_recibo)");
+            jdbcTemplate.execute("create index if not exists idx_chv_archive_plate on " + TABLE + " (placa, entry_date)");
+        }
+    }
+
+    // Upper bounds (exclusive yyyymm) of the month partitions, MySQL only
+    public List<Integer> findPartitionBounds() {
+        return jdbcTemplate.queryForList("select partition_description from information_schema.partitions " +
+                        "where table_schema = database() and table_name = ? and partition_description <> 'MAXVALUE'",
+                String.class, TABLE).stream().map(Integer::valueOf).toList();
+    }
+
+    // p_future is kept empty, so splitting it only touches the table definition
+    public void addPartition(int month, int below) {
+        jdbcTemplate.execute(String.format("alter table %s reorganize partition p_future into (" +
+                "partition p%d values less than (%d), partition p_future values less than maxvalue)", TABLE, month, below));
+    }
+
+    public List<Long> findArchivableIds(long afterId, LocalDateTime before, int limit) {
+        return jdbcTemplate.queryForList("select id from customers_has_vacancies " +
+                        "where id > ? and entry_date < ? and departure_date is not null and departure_date < ? " +
+                        "order by id limit ?",
+                Long.class, afterId, Timestamp.valueOf(before), Timestamp.valueOf(before), limit);
+    }
+
+    public Integer findMaxArchiveMonth(Collection<Long> ids) {
+        return new NamedParameterJdbcTemplate(jdbcTemplate).queryForObject("select max(year(entry_date) * 100 + " +
+                "month(entry_date)) from customers_has_vacancies where id in (:ids)", Map.of("ids", ids), Integer.class);
+    }
+
+    // Copies then deletes the same closed rows; callers run both in one transaction
+    public int moveToArchive(Collection<Long> ids) {
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+        Map<String, Object> params = Map.of("ids", ids);
+        int moved = named.update("insert into " + TABLE + " (archive_month, " + COLUMNS + ") " +
+                "select year(entry_date) * 100 + month(entry_date), " + COLUMNS + " from customers_has_vacancies " +
+                "where id in (:ids) and departure_date is not null", params);
+        named.update("delete from customers_has_vacancies where id in (:ids) and departure_date is not null", params);
+        return moved;
+    }
+
+    public LocalDateTime findMaxEntryDate() {
+        Timestamp max = jdbcTemplate.queryForObject("select max(entry_date) from " + TABLE, Timestamp.class);
+        return max == null ? null : max.toLocalDateTime();
+    }
+
+    public Long findMinId() {
+        return jdbcTemplate.queryForObject("select min(id) from " + TABLE, Long.class);
+    }
+
+    public Long findMaxId() {
+        return jdbcTemplate.queryForObject("select max(id) from " + TABLE, Long.class);
+    }
+
+    public List<RevenueRow> findRevenueRows(long from, long to, LocalDateTime departedBefore) {
+        return jdbcTemplate.query("select a.departure_date, v.zone, a.valor, a.desconto from " + TABLE + " a " +
+                        "join vacancies v on v.id = a.vacancy_id where a.id between ? and ? and a.departure_date < ?",
+                (rs, i) -> new RevenueRow(rs.getTimestamp(1).toLocalDateTime(), rs.getString(2),
+                        rs.getBigDecimal(3), rs.getBigDecimal(4)),
+                from, to, Timestamp.valueOf(departedBefore));
+    }
+
+    // Adds the archived visits on top of the count reconciled from the hot table
+    public int addCompletedVisits(long from, long to) {
+        return jdbcTemplate.update("update clients c set completed_visits = completed_visits + " +
+                "(select count(*) from " + TABLE + " a where a.id_client = c.id) where c.id between ? and ?", from, to);
+    }
+
+    // Paged with LookaheadPageRequest like ClientVacancyRepository.streamByClientCpf, hot and archived rows together
+    public Stream<ClientVacancyProjection> streamHistoryByClientCpf(String cpf, Pageable pageable) {
+        return streamHistory("c.cpf = ?", cpf, pageable);
+    }
+
+    public Stream<ClientVacancyProjection> streamHistoryByClientUserId(Long id, Pageable pageable) {
+        return streamHistory("c.id_user = ?", id, pageable);
+    }
+
+    public long countByClientCpf(String cpf) {
+        return jdbcTemplate.queryForObject("select count(*) from " + TABLE + " a join clients c on c.id = a.id_client " +
+                "where c.cpf = ?", Long.class, cpf);
+    }
+
+    public long countByClientUserId(Long id) {
+        return jdbcTemplate.queryForObject("select count(*) from " + TABLE + " a join clients c on c.id = a.id_client " +
+                "where c.id_user = ?", Long.class, id);
+    }
+
+    // Only the months between fromMonth and toMonth are opened
+    public Optional<ClientVacancy> findByReceipt(String receipt, int fromMonth, int toMonth) {
+        return jdbcTemplate.query(String.format(HISTORY, TABLE, "cv.numero_recibo = ? and cv.archive_month between ? and ?"),
+                (rs, i) -> toClientVacancy(rs), receipt, fromMonth, toMonth).stream().findFirst();
+    }
+
+    // Receipts that do not tell their month probe every partition through idx_chv_archive_receipt
+    public Optional<ClientVacancy> findByReceipt(String receipt) {
+        return jdbcTemplate.query(String.format(HISTORY, TABLE, "cv.numero_recibo = ?"),
+                (rs, i) -> toClientVacancy(rs), receipt).stream().findFirst();
+    }
+
+    public List<String> findReceiptsIn(Collection<String> receipts) {
+        return new NamedParameterJdbcTemplate(jdbcTemplate).queryForList("select numero_recibo from " + TABLE +
+                " where numero_recibo in (:receipts)", Map.of("receipts", receipts), String.class);
+    }
+
+    public List<ClientVacancy> findLatestByPlate(String plate, int limit) {
+        return jdbcTemplate.query(String.format(HISTORY, TABLE, "cv.placa = ?") + " order by cv.entry_date desc limit ?",
+                (rs, i) -> toClientVacancy(rs), plate, limit);
+    }
+
+    // Keyset page after (entryDate, id), the archived half only opens the months from the cursor on
+    public List<ClientVacancy> findNextByClientCpf(String cpf, LocalDateTime entryDate, Long id, int limit) {
+        return findNext("c.cpf = ?", cpf, entryDate, id, limit);
+    }
+
+    public List<ClientVacancy> findNextByClientUserId(Long userId, LocalDateTime entryDate, Long id, int limit) {
+        return findNext("c.id_user = ?", userId, entryDate, id, limit);
+    }
+
+    private Stream<ClientVacancyProjection> streamHistory(String client, Object key, Pageable pageable) {
+        String sql = "select * from (" + String.format(HISTORY, "customers_has_vacancies", client) + " union all " +
+                String.format(HISTORY, TABLE, client) + ") h order by " + orderBy(pageable.getSort()) + " limit ? offset ?";
+        return jdbcTemplate.queryForStream(sql, (rs, i) -> new ClientVacancyRow(rs.getString(3), rs.getString(4),
+                        rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(2), localDateTime(rs, 12),
+                        localDateTime(rs, 13), rs.getString(8), rs.getBigDecimal(14), rs.getBigDecimal(15)),
+                key, key, pageable.getPageSize(), pageable.getOffset());
+    }
+
+    private List<ClientVacancy> findNext(String client, Object key, LocalDateTime entryDate, Long id, int limit) {
+        String keyset = client + " and (cv.entry_date > ? or (cv.entry_date = ? and cv.id > ?))";
+        String sql = "select * from (" + String.format(HISTORY, "customers_has_vacancies", keyset) + " union all " +
+                String.format(HISTORY, TABLE, keyset + " and cv.archive_month >= ?") + ") h " +
+                "order by h.entry_date, h.id limit ?";
+        Timestamp after = Timestamp.valueOf(entryDate);
+        return jdbcTemplate.query(sql, (rs, i) -> toClientVacancy(rs),
+                key, after, after, id, key, after, after, id, archiveMonth(entryDate), limit);
+    }
+
+    // Detached, only carries what ClientVacancyMapper.toDto reads
+    private static ClientVacancy toClientVacancy(ResultSet rs) throws SQLException {
+        ClientVacancy clientVacancy = new ClientVacancy();
+        clientVacancy.setId(rs.getLong(1));
+        clientVacancy.setReceipt(rs.getString(2));
+        clientVacancy.setPlate(rs.getString(3));
+        clientVacancy.setBrand(rs.getString(4));
+        clientVacancy.setModel(rs.getString(5));
+        clientVacancy.setColor(rs.getString(6));
+        Client client = new Client();
+        client.setCpf(rs.getString(7));
+        clientVacancy.setClient(client);
+        if (rs.getString(8) != null) {
+            Vacancy vacancy = new Vacancy();
+            vacancy.setCode(rs.getString(8));
+            vacancy.setZone(rs.getString(9));
+            vacancy.setLevel(rs.getInt(10));
+            vacancy.setType(Vacancy.SpotType.valueOf(rs.getString(11)));
+            clientVacancy.setVacancy(vacancy);
+        }
+        clientVacancy.setEntryDate(localDateTime(rs, 12));
+        clientVacancy.setDepartureDate(localDateTime(rs, 13));
+        clientVacancy.setValue(rs.getBigDecimal(14));
+        clientVacancy.setDiscount(rs.getBigDecimal(15));
+        return clientVacancy;
+    }
+
+    private static LocalDateTime localDateTime(ResultSet rs, int column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    // Properties outside the projection are ignored, the id keeps the offset pages stable
+    private static String orderBy(Sort sort) {
+        StringBuilder orderBy = new StringBuilder();
+        for (Sort.Order order : sort) {
+            String column = HISTORY_SORT.get(order.getProperty());
+            if (column != null) {
+                orderBy.append("h.").append(column).append(order.isAscending() ? " asc, " : " desc, ");
+            }
+        }
+        return orderBy.append("h.id").toString();
+    }
+
+    public static int archiveMonth(LocalDateTime date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    public static int nextMonth(int month) {
+        return month % 100 == 12 ? (month / 100 + 1) * 100 + 1 : month + 1;
+    }
+}
@@ -2,20 +2,91 @@ package com.practice.trainingapi.repository;
 
 import com.practice.trainingapi.entity.ClientVacancy;
 import com.practice.trainingapi.repository.projection.ClientVacancyProjection;
-import org.springframework.data.domain.Page;
+import com.practice.trainingapi.repository.projection.OpenSession;
+import com.practice.trainingapi.repository.projection.RevenueRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ClientVacancyRepository extends JpaRepository<ClientVacancy, Long> {
 
+    String HISTORY = "select cv.plate as plate, cv.brand as brand, cv.model as model, cv.color as color, " +
+            "c.cpf as clientCpf, cv.receipt as receipt, cv.entryDate as entryDate, cv.departureDate as departureDate, " +
+            "v.code as vacancyCode, cv.value as value, cv.discount as discount " +
+            "from ClientVacancy cv join cv.client c join cv.vacancy v ";
+
+    @Override
+    @EntityGraph(attributePaths = {"client", "vacancy"})
+    Optional<ClientVacancy> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"client", "vacancy"})
+    List<ClientVacancy> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = {"client", "vacancy"})
     Optional<ClientVacancy> findByReceiptAndDepartureDateIsNull(String receipt);
 
-    long countByClientCpfAndDepartureDateIsNotNull(String cpf);
+    @EntityGraph(attributePaths = {"client", "vacancy"})
+    Optional<ClientVacancy> findByReceipt(String receipt);
+
+    @EntityGraph(attributePaths = {"client", "vacancy"})
+    List<ClientVacancy> findAllByReceiptInAndDepartureDateIsNull(Collection<String> receipts);
+
+    @Query("select cv.receipt from ClientVacancy cv where cv.receipt in :receipts and cv.departureDate is not null")
+    List<String> findClosedReceipts(Collection<String> receipts);
+
+    @Query("select new com.practice.trainingapi.repository.projection.OpenSession(cv.receipt, cv.id, cv.vacancy.id, cv.entryDate, cv.plate) " +
+            "from ClientVacancy cv where cv.departureDate is null")
+    List<OpenSession> findAllOpenSessions();
+
+    @Query("select min(cv.id) from ClientVacancy cv")
+    Long findMinId();
+
+    @Query("select max(cv.id) from ClientVacancy cv")
+    Long findMaxId();
+
+    @Query("select new com.practice.trainingapi.repository.projection.RevenueRow(cv.departureDate, v.zone, cv.value, cv.discount) " +
+            "from ClientVacancy cv join cv.vacancy v where cv.id between :from and :to and cv.departureDate < :departedBefore")
+    List<RevenueRow> findRevenueRows(long from, long to, LocalDateTime departedBefore);
+
+    @EntityGraph(attributePaths = {"client", "vacancy"})
+    List<ClientVacancy> findTop5ByPlateOrderByEntryDateDesc(String plate);
+
+    // Paged with LookaheadPageRequest, the rows are serialized one at a time by PageJsonWriter
+    @Query(HISTORY + "where c.cpf = :cpf")
+    Stream<ClientVacancyProjection> streamByClientCpf(String cpf, Pageable pageable);
+
+    @Query(HISTORY + "where c.user.id = :id")
+    Stream<ClientVacancyProjection> streamByClientUserId(Long id, Pageable pageable);
+
+    long countByClientCpf(String cpf);
+
+    long countByClientUserId(Long id);
+
+    long countByClientCpfAndEntryDateAfter(String cpf, LocalDateTime entryDate);
+
+    long countByClientCpfAndEntryDateLessThanEqual(String cpf, LocalDateTime entryDate);
+
+    long countByClientUserIdAndEntryDateAfter(Long id, LocalDateTime entryDate);
+
+    long countByClientUserIdAndEntryDateLessThanEqual(Long id, LocalDateTime entryDate);
 
-    Page<ClientVacancyProjection> findAllByClientCpf(String cpf, Pageable pageable);
+    @Query("select cv from ClientVacancy cv join fetch cv.client c join fetch cv.vacancy " +
+            "where c.cpf = :cpf and (cv.entryDate > :entryDate or (cv.entryDate = :entryDate and cv.id > :id)) " +
+            "order by cv.entryDate, cv.id")
+    List<ClientVacancy> findNextByClientCpf(String cpf, LocalDateTime entryDate, Long id, Limit limit);
 
-    Page<ClientVacancyProjection> findAllByClientUserId(Long id, Pageable pageable);
+    @Query("select cv from ClientVacancy cv join fetch cv.client c join fetch cv.vacancy " +
+            "where c.user.id = :userId and (cv.entryDate > :entryDate or (cv.entryDate = :entryDate and cv.id > :id)) " +
+            "order by cv.entryDate, cv.id")
+    List<ClientVacancy> findNextByClientUserId(Long userId, LocalDateTime entryDate, Long id, Limit limit);
 
 }
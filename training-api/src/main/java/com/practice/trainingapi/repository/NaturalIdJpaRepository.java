@@ -0,0 +1,32 @@
+package com.practice.trainingapi.repository;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+// Base class of every repository, registered in TrainingApiApplication
+public class NaturalIdJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> implements NaturalIdRepository<T, ID> {
+
+    private final EntityManager entityManager;
+
+    public NaturalIdJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<T> findBySimpleNaturalId(Object naturalId) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(getDomainClass()).loadOptional(naturalId);
+    }
+
+    @Override
+    public void evictFromCache(Collection<ID> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(getDomainClass(), id));
+    }
+}
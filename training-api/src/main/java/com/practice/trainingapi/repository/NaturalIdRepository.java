@@ -0,0 +1,19 @@
+package com.practice.trainingapi.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.Collection;
+import java.util.Optional;
+
+// Lookups by the entity's @NaturalId go through Hibernate's natural-id resolution, which is served from
+// the second-level cache instead of running a query.
+@NoRepositoryBean
+public interface NaturalIdRepository<T, ID> extends JpaRepository<T, ID> {
+
+    Optional<T> findBySimpleNaturalId(Object naturalId);
+
+    // Drops the second-level cache entries of rows changed behind Hibernate's back, the rest of the region stays
+    void evictFromCache(Collection<ID> ids);
+
+}
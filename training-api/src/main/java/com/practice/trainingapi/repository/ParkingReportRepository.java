@@ -0,0 +1,8 @@
+package com.practice.trainingapi.repository;
+
+import com.practice.trainingapi.entity.ParkingReport;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ParkingReportRepository extends JpaRepository<ParkingReport, Long> {
+
+}
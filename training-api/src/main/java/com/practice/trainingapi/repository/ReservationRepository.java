@@ -0,0 +1,29 @@
+package com.practice.trainingapi.repository;
+
+import com.practice.trainingapi.entity.Reservation;
+import com.practice.trainingapi.repository.projection.ReservationDeadline;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    Optional<Reservation> findByCode(String code);
+
+    // Read from idx_reservations_status alone, the sweep never loads the reservations themselves
+    @Query("select new com.practice.trainingapi.repository.projection.ReservationDeadline(r.id, r.expiresAt) " +
+            "from Reservation r where r.status = :status")
+    List<ReservationDeadline> findDeadlinesByStatus(Reservation.Status status);
+
+    List<Reservation> findAllByIdInAndStatusAndExpiresAtLessThanEqual(List<Long> ids, Reservation.Status status,
+                                                                      LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Reservation r set r.status = :target where r.id = :id and r.status = :expected")
+    int updateStatus(Long id, Reservation.Status expected, Reservation.Status target);
+
+}
@@ -0,0 +1,23 @@
+package com.practice.trainingapi.repository;
+
+import com.practice.trainingapi.entity.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, RevenueRollup.Key>, RevenueRollupRepositoryCustom {
+
+    @Query("select r from RevenueRollup r where r.granularity = :granularity " +
+            "and r.bucketStart >= :from and r.bucketStart < :to and (:zone is null or r.zone = :zone) " +
+            "order by r.bucketStart, r.zone")
+    List<RevenueRollup> findAllInRange(RevenueRollup.Granularity granularity, LocalDateTime from, LocalDateTime to,
+                                       String zone);
+
+    @Modifying
+    @Query("delete from RevenueRollup r where r.bucketStart < :before")
+    int deleteAllBefore(LocalDateTime before);
+
+}
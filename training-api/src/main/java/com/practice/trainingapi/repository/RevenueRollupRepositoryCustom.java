@@ -0,0 +1,11 @@
+package com.practice.trainingapi.repository;
+
+import com.practice.trainingapi.entity.RevenueRollup;
+
+import java.util.Collection;
+
+public interface RevenueRollupRepositoryCustom {
+
+    void addAll(Collection<RevenueRollup> increments);
+
+}
@@ -0,0 +1,36 @@
+package com.practice.trainingapi.repository;
+
+import com.practice.trainingapi.entity.RevenueRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+
+// Rollups are only ever incremented, one batched upsert per (granularity, bucket, zone) touched.
+@RequiredArgsConstructor
+public class RevenueRollupRepositoryCustomImpl implements RevenueRollupRepositoryCustom {
+
+    private static final String UPSERT = "insert into revenue_rollups " +
+            "(granularity, bucket_start, zone, sessions, revenue_cents, discount_cents) values (?, ?, ?, ?, ?, ?) " +
+            "on duplicate key update sessions = sessions + values(sessions), " +
+            "revenue_cents = revenue_cents + values(revenue_cents), discount_cents = discount_cents + values(discount_cents)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addAll(Collection<RevenueRollup> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT, new ArrayList<>(increments), increments.size(), (ps, rollup) -> {
+            ps.setString(1, rollup.getGranularity().name());
+            ps.setTimestamp(2, Timestamp.valueOf(rollup.getBucketStart()));
+            ps.setString(3, rollup.getZone());
+            ps.setLong(4, rollup.getSessions());
+            ps.setLong(5, rollup.getRevenueCents());
+            ps.setLong(6, rollup.getDiscountCents());
+        });
+    }
+}
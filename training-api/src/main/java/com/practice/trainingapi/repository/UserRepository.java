@@ -1,14 +1,10 @@
 package com.practice.trainingapi.repository;
 
 import com.practice.trainingapi.entity.User;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
-import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends NaturalIdRepository<User, Long> {
 
     @Query("select u.role from User u where u.username like :username")
     User.Role findRoleByUsername(String username);
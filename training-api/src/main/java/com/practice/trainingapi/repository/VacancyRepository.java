@@ -1,14 +1,64 @@
 package com.practice.trainingapi.repository;
 
 import com.practice.trainingapi.entity.Vacancy;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.practice.trainingapi.repository.projection.VacancySpot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface VacancyRepository extends JpaRepository<Vacancy, Long> {
+public interface VacancyRepository extends NaturalIdRepository<Vacancy, Long> {
 
-    Optional<Vacancy> findByCode(String code);
+    String STATUS_SPACE = "vacancies_status";
+
+    @Query("select v.code from Vacancy v where v.code in :codes")
+    List<String> findCodesIn(Collection<String> codes);
 
     Optional<Vacancy> findFirstByStatus(Vacancy.StatusVacancy statusVacancy);
 
+    @Query("select v.id from Vacancy v where v.status = :status")
+    List<Long> findIdsByStatus(Vacancy.StatusVacancy status);
+
+    @Query("select new com.practice.trainingapi.repository.projection.VacancySpot(v.id, v.zone, v.type, v.distance) " +
+            "from Vacancy v")
+    List<VacancySpot> findAllSpots();
+
+    @Query("select v.status, count(v) from Vacancy v group by v.status")
+    List<Object[]> countByStatus();
+
+    // Same order as VacancyAllocator.claim: the nearest spot of the preferred zone, then the nearest anywhere
+    @Query(value = "select id from vacancies where status = 'FREE' and spot_type = :type " +
+            "order by case when zone = :zone then 0 else 1 end, distance, id limit 1 for update skip locked", nativeQuery = true)
+    Optional<Long> findFreeIdForUpdateSkipLocked(String type, String zone);
+
+    @Query(value = "select id from vacancies where id in (:ids) and status = 'FREE' for update skip locked", nativeQuery = true)
+    List<Long> findFreeIdsForUpdateSkipLocked(Collection<Long> ids);
+
+    // A JPQL update would evict the whole vacancies cache region on every claim. These run as native updates bound to a
+    // query space no entity maps to, so nothing is evicted and the caller evicts the claimed rows with evictFromCache.
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATUS_SPACE))
+    @Query(value = "update vacancies set status = :target, modification_date = localtimestamp " +
+            "where id = :id and status = :expected", nativeQuery = true)
+    int updateStatus(Long id, String expected, String target);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATUS_SPACE))
+    @Query(value = "update vacancies set status = :target, modification_date = localtimestamp " +
+            "where id in (:ids) and status = :expected", nativeQuery = true)
+    int updateStatus(Collection<Long> ids, String expected, String target);
+
+    default int updateStatus(Long id, Vacancy.StatusVacancy expected, Vacancy.StatusVacancy target) {
+        return updateStatus(id, expected.name(), target.name());
+    }
+
+    default int updateStatus(Collection<Long> ids, Vacancy.StatusVacancy expected, Vacancy.StatusVacancy target) {
+        return updateStatus(ids, expected.name(), target.name());
+    }
+
 }
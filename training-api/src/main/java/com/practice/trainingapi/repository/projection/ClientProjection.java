@@ -3,7 +3,7 @@ package com.practice.trainingapi.repository.projection;
 public interface ClientProjection {
 
     Long getId();
-    String getNome();
+    String getName();
     String getCpf();
 
 }
@@ -1,9 +1,25 @@
 package com.practice.trainingapi.repository.projection;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Read straight from the history queries' select aliases, no entity is loaded
 public interface ClientVacancyProjection {
 
-    Long getId();
-    String getName();
-    String getCpf();
+    String getPlate();
+    String getBrand();
+    String getModel();
+    String getColor();
+    String getClientCpf();
+    String getReceipt();
+    @JsonFormat(pattern = "yyyy-MM-dd hh:mm:ss")
+    LocalDateTime getEntryDate();
+    @JsonFormat(pattern = "yyyy-MM-dd hh:mm:ss")
+    LocalDateTime getDepartureDate();
+    String getVacancyCode();
+    BigDecimal getValue();
+    BigDecimal getDiscount();
 
 }
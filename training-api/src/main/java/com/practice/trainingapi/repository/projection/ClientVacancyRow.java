@@ -0,0 +1,26 @@
+package com.practice.trainingapi.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// History row read with JDBC when the archive is part of the query, serialized like the JPQL projection
+@Getter
+@AllArgsConstructor
+public class ClientVacancyRow implements ClientVacancyProjection {
+
+    private final String plate;
+    private final String brand;
+    private final String model;
+    private final String color;
+    private final String clientCpf;
+    private final String receipt;
+    private final LocalDateTime entryDate;
+    private final LocalDateTime departureDate;
+    private final String vacancyCode;
+    private final BigDecimal value;
+    private final BigDecimal discount;
+
+}
@@ -0,0 +1,18 @@
+package com.practice.trainingapi.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class OpenSession {
+
+    private final String receipt;
+    private final Long id;
+    private final Long vacancyId;
+    private final LocalDateTime entryDate;
+    private final String plate;
+
+}
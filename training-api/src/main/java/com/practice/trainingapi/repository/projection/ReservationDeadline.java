@@ -0,0 +1,15 @@
+package com.practice.trainingapi.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ReservationDeadline {
+
+    private final Long id;
+    private final LocalDateTime expiresAt;
+
+}
@@ -0,0 +1,24 @@
+package com.practice.trainingapi.repository.projection;
+
+import com.practice.trainingapi.entity.ClientVacancy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class RevenueRow {
+
+    private final LocalDateTime departureDate;
+    private final String zone;
+    private final BigDecimal value;
+    private final BigDecimal discount;
+
+    public static RevenueRow of(ClientVacancy clientVacancy) {
+        return new RevenueRow(clientVacancy.getDepartureDate(), clientVacancy.getVacancy().getZone(),
+                clientVacancy.getValue(), clientVacancy.getDiscount());
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.practice.trainingapi.repository.projection;
+
+import com.practice.trainingapi.entity.Vacancy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class VacancySpot {
+
+    private final Long id;
+    private final String zone;
+    private final Vacancy.SpotType type;
+    private final int distance;
+
+    public static VacancySpot of(Vacancy vacancy) {
+        return new VacancySpot(vacancy.getId(), vacancy.getZone(), vacancy.getType(), vacancy.getDistance());
+    }
+}
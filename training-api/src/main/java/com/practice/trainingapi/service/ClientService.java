@@ -5,23 +5,34 @@ import com.practice.trainingapi.exception.CpfUniqueViolationException;
 import com.practice.trainingapi.exception.EntityNotFoundException;
 import com.practice.trainingapi.repository.ClientRepository;
 import com.practice.trainingapi.repository.projection.ClientProjection;
+import com.practice.trainingapi.util.LookaheadPageRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @RequiredArgsConstructor
 @Service
 public class ClientService {
 
     private final ClientRepository clientRepository;
+    private final CountCache countCache;
+    private final PageJsonWriter pageJsonWriter;
+    private final EntityManager entityManager;
 
     @Transactional
     public Client insert(Client client) {
         try {
-            return clientRepository.save(client);
+            return clientRepository.saveAndFlush(client);
         } catch (DataIntegrityViolationException ex) {
             throw new CpfUniqueViolationException(String.format("CPF '%s', cannot be registered, already exists in system", client.getCpf()));
         }
@@ -35,19 +46,41 @@ public class ClientService {
     }
 
     @Transactional(readOnly = true)
-    public Page<ClientProjection> findAll(Pageable pageable) {
-        return clientRepository.findAllPageable(pageable);
+    public void writeAll(Pageable pageable, CountMode count, OutputStream output) throws IOException {
+        try (Stream<ClientProjection> clients = clientRepository.streamAll(LookaheadPageRequest.of(pageable))) {
+            pageJsonWriter.write(clients, pageable, countCache.total(count, "clients", clientRepository::count), output);
+        }
     }
 
     @Transactional(readOnly = true)
     public Client findByUserId(Long id) {
-        return clientRepository.findByUserId(id);
+        Client client = clientRepository.findByUserId(id);
+        if (client == null) {
+            throw new EntityNotFoundException(String.format("Client with user id=%s not found", id));
+        }
+        return client;
     }
 
     @Transactional(readOnly = true)
     public Client findByCpf(String cpf) {
-        return clientRepository.findByCpf(cpf).orElseThrow(
+        return clientRepository.findBySimpleNaturalId(cpf).orElseThrow(
                 () -> new EntityNotFoundException(String.format("Client with this CPF '%s', not found", cpf))
         );
     }
+
+    // The managed client is re-read under a row lock, so concurrent checkouts of the same client still add up, and
+    // is then updated through dirty checking: only its own cache entry changes, where a bulk update would evict
+    // the whole clients regions
+    @Transactional
+    public long registerCompletedVisits(Client client, long visits) {
+        entityManager.refresh(client, LockModeType.PESSIMISTIC_WRITE);
+        long previous = client.getCompletedVisits();
+        client.setCompletedVisits(previous + visits);
+        return previous;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Client> findAllByCpf(Collection<String> cpfs) {
+        return clientRepository.findAllByCpfIn(cpfs);
+    }
 }
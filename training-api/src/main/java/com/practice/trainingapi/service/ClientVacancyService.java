@@ -2,44 +2,225 @@ package com.practice.trainingapi.service;
 
 import com.practice.trainingapi.entity.ClientVacancy;
 import com.practice.trainingapi.exception.EntityNotFoundException;
+import com.practice.trainingapi.repository.ClientVacancyArchiveRepository;
 import com.practice.trainingapi.repository.ClientVacancyRepository;
 import com.practice.trainingapi.repository.projection.ClientVacancyProjection;
+import com.practice.trainingapi.util.KeysetCursor;
+import com.practice.trainingapi.util.LookaheadPageRequest;
+import com.practice.trainingapi.util.ParkingUtils;
+import com.practice.trainingapi.util.ReceiptGenerator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
 @RequiredArgsConstructor
 @Service
 public class ClientVacancyService {
 
+    private static final int PLATE_HISTORY = 5;
+
     private final ClientVacancyRepository clientVacancyRepository;
+    private final OpenSessionIndex openSessionIndex;
+    private final CountCache countCache;
+    private final PageJsonWriter pageJsonWriter;
+    private final ClientVacancyArchiveRepository archiveRepository;
+    private final ParkingArchiveService parkingArchiveService;
+    private final ReceiptGenerator receiptGenerator;
 
     @Transactional
     public ClientVacancy insert(ClientVacancy clientVacancy) {
         return clientVacancyRepository.save(clientVacancy);
     }
 
+    @Transactional
+    public List<ClientVacancy> insertAll(List<ClientVacancy> clientVacancies) {
+        return clientVacancyRepository.saveAll(clientVacancies);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ClientVacancy> findAllByReceipt(Collection<String> receipts) {
+        List<Long> ids = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String receipt : receipts) {
+            openSessionIndex.find(receipt).ifPresentOrElse(session -> ids.add(session.getId()), () -> missing.add(receipt));
+        }
+
+        List<ClientVacancy> clientVacancies = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            clientVacancyRepository.findAllById(ids).stream()
+                    .filter(clientVacancy -> clientVacancy.getDepartureDate() == null)
+                    .forEach(clientVacancies::add);
+        }
+        if (!missing.isEmpty() && !openSessionIndex.isAuthoritative()) {
+            clientVacancies.addAll(clientVacancyRepository.findAllByReceiptInAndDepartureDateIsNull(missing));
+        }
+        return clientVacancies;
+    }
+
+    @Transactional(readOnly = true)
+    public Set<String> findCheckedOutReceipts(Collection<String> receipts) {
+        if (receipts.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> closed = new HashSet<>(clientVacancyRepository.findClosedReceipts(receipts));
+        if (closed.size() < receipts.size() && parkingArchiveService.getArchivedThrough().isPresent()) {
+            closed.addAll(archiveRepository.findReceiptsIn(receipts));
+        }
+        return closed;
+    }
+
     @Transactional(readOnly = true)
     public ClientVacancy findByReceipt(String receipt) {
-        return clientVacancyRepository.findByReceiptAndDepartureDateIsNull(receipt).orElseThrow(
+        Optional<ClientVacancy> clientVacancy = openSessionIndex.find(receipt)
+                .flatMap(session -> clientVacancyRepository.findById(session.getId()))
+                .filter(session -> session.getDepartureDate() == null);
+        if (clientVacancy.isEmpty() && !openSessionIndex.isAuthoritative()) {
+            clientVacancy = clientVacancyRepository.findByReceiptAndDepartureDateIsNull(receipt);
+        }
+        return clientVacancy.orElseThrow(
                 () -> new EntityNotFoundException(String.format("Receipt '%s' not found in system or checkout already done", receipt))
         );
     }
 
+    // Any session with the receipt, open or closed. Archived ones are only looked up in the month the receipt was issued,
+    // its entry month, or the one before when the entry was stamped just ahead of a month boundary.
+    @Transactional(readOnly = true)
+    public ClientVacancy findAnyByReceipt(String receipt) {
+        Optional<ClientVacancy> clientVacancy = clientVacancyRepository.findByReceipt(receipt);
+        if (clientVacancy.isEmpty() && parkingArchiveService.getArchivedThrough().isPresent()) {
+            if (receiptGenerator.isValid(receipt)) {
+                LocalDateTime issued = LocalDateTime.ofInstant(receiptGenerator.timestampOf(receipt), ZoneId.systemDefault());
+                clientVacancy = archiveRepository.findByReceipt(receipt,
+                        ClientVacancyArchiveRepository.archiveMonth(issued.minusMinutes(1)),
+                        ClientVacancyArchiveRepository.archiveMonth(issued));
+            } else {
+                clientVacancy = archiveRepository.findByReceipt(receipt);
+            }
+        }
+        return clientVacancy.orElseThrow(
+                () -> new EntityNotFoundException(String.format("Receipt '%s' not found in system", receipt))
+        );
+    }
+
     @Transactional(readOnly = true)
-    public long getTotalParkedTimesComplete(String cpf) {
-        return clientVacancyRepository.countByClientCpfAndDepartureDateIsNotNull(cpf);
+    public List<ClientVacancy> findByPlate(String plate) {
+        String normalized = ParkingUtils.normalizePlate(plate);
+        Optional<ClientVacancy> open = openSessionIndex.findByPlate(normalized)
+                .flatMap(session -> clientVacancyRepository.findById(session.getId()))
+                .filter(session -> session.getDepartureDate() == null);
+        if (open.isPresent()) {
+            return List.of(open.get());
+        }
+        List<ClientVacancy> latest = clientVacancyRepository.findTop5ByPlateOrderByEntryDateDesc(normalized);
+        // Archived sessions are older than archivedThrough, they only show up when the hot ones do not fill the list
+        Optional<LocalDateTime> archivedThrough = parkingArchiveService.getArchivedThrough();
+        if (archivedThrough.isPresent() && (latest.size() < PLATE_HISTORY
+                || !latest.get(PLATE_HISTORY - 1).getEntryDate().isAfter(archivedThrough.get()))) {
+            latest = Stream.concat(latest.stream(), archiveRepository.findLatestByPlate(normalized, PLATE_HISTORY).stream())
+                    .sorted(Comparator.comparing(ClientVacancy::getEntryDate).reversed())
+                    .limit(PLATE_HISTORY)
+                    .toList();
+        }
+        if (latest.isEmpty()) {
+            throw new EntityNotFoundException(String.format("Plate '%s' not found in system", normalized));
+        }
+        return latest;
     }
 
+    // The rows go to the output as they are read, so the stream is consumed inside the read-only transaction
     @Transactional(readOnly = true)
-    public Page<ClientVacancyProjection> findAllByClientCpf(String cpf, Pageable pageable) {
-        return clientVacancyRepository.findAllByClientCpf(cpf, pageable);
+    public void writeAllByClientCpf(String cpf, Pageable pageable, CountMode count, OutputStream output) throws IOException {
+        Optional<LocalDateTime> archivedThrough = parkingArchiveService.getArchivedThrough();
+        Optional<LookaheadPageRequest> hotPage = hotPage(pageable, archivedThrough,
+                through -> clientVacancyRepository.countByClientCpfAndEntryDateAfter(cpf, through),
+                through -> clientVacancyRepository.countByClientCpfAndEntryDateLessThanEqual(cpf, through),
+                () -> archiveRepository.countByClientCpf(cpf));
+        try (Stream<ClientVacancyProjection> rows = hotPage.isPresent()
+                ? clientVacancyRepository.streamByClientCpf(cpf, hotPage.get())
+                : archiveRepository.streamHistoryByClientCpf(cpf, LookaheadPageRequest.of(pageable))) {
+            pageJsonWriter.write(rows, pageable, countCache.total(count, "parkings:cpf:" + cpf,
+                    () -> clientVacancyRepository.countByClientCpf(cpf) + (archivedThrough.isPresent() ? archiveRepository.countByClientCpf(cpf) : 0)),
+                    output);
+        }
     }
 
     @Transactional(readOnly = true)
-    public Page<ClientVacancyProjection> findAllByUserId(Long id, Pageable pageable) {
-        return clientVacancyRepository.findAllByClientUserId(id, pageable);
+    public void writeAllByUserId(Long id, Pageable pageable, CountMode count, OutputStream output) throws IOException {
+        Optional<LocalDateTime> archivedThrough = parkingArchiveService.getArchivedThrough();
+        Optional<LookaheadPageRequest> hotPage = hotPage(pageable, archivedThrough,
+                through -> clientVacancyRepository.countByClientUserIdAndEntryDateAfter(id, through),
+                through -> clientVacancyRepository.countByClientUserIdAndEntryDateLessThanEqual(id, through),
+                () -> archiveRepository.countByClientUserId(id));
+        try (Stream<ClientVacancyProjection> rows = hotPage.isPresent()
+                ? clientVacancyRepository.streamByClientUserId(id, hotPage.get())
+                : archiveRepository.streamHistoryByClientUserId(id, LookaheadPageRequest.of(pageable))) {
+            pageJsonWriter.write(rows, pageable, countCache.total(count, "parkings:user:" + id,
+                    () -> clientVacancyRepository.countByClientUserId(id) + (archivedThrough.isPresent() ? archiveRepository.countByClientUserId(id) : 0)),
+                    output);
+        }
+    }
+
+    // One row past the page is read to know whether there is a next one, no count query is run.
+    // The archive is only read while the cursor has not passed the last archived session.
+    @Transactional(readOnly = true)
+    public List<ClientVacancy> findNextByClientCpf(String cpf, KeysetCursor cursor, int size) {
+        if (reachesArchive(cursor)) {
+            return archiveRepository.findNextByClientCpf(cpf, cursor.getEntryDate(), cursor.getId(), size + 1);
+        }
+        return clientVacancyRepository.findNextByClientCpf(cpf, cursor.getEntryDate(), cursor.getId(), Limit.of(size + 1));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ClientVacancy> findNextByUserId(Long id, KeysetCursor cursor, int size) {
+        if (reachesArchive(cursor)) {
+            return archiveRepository.findNextByClientUserId(id, cursor.getEntryDate(), cursor.getId(), size + 1);
+        }
+        return clientVacancyRepository.findNextByClientUserId(id, cursor.getEntryDate(), cursor.getId(), Limit.of(size + 1));
+    }
+
+    // Archived sessions all entered at or before archivedThrough. Sorted by entry date alone, a page whose rows all come
+    // after that, the newest ones descending or the ones past every archived and older hot row ascending, reads the hot
+    // table only. Any other page can hold archived sessions and reads the union, which breaks ties by id.
+    private Optional<LookaheadPageRequest> hotPage(Pageable pageable, Optional<LocalDateTime> archivedThrough,
+                                                   ToLongFunction<LocalDateTime> newer, ToLongFunction<LocalDateTime> older,
+                                                   LongSupplier archived) {
+        if (archivedThrough.isEmpty()) {
+            return Optional.of(LookaheadPageRequest.of(pageable));
+        }
+        Sort.Order order = pageable.getSort().getOrderFor("entryDate");
+        if (order == null || pageable.getSort().stream().count() > 1) {
+            return Optional.empty();
+        }
+        Sort sort = pageable.getSort().and(Sort.by("id"));
+        LocalDateTime through = archivedThrough.get();
+        if (order.isDescending()) {
+            return pageable.getOffset() + pageable.getPageSize() + 1 <= newer.applyAsLong(through)
+                    ? Optional.of(LookaheadPageRequest.of(pageable, sort, 0)) : Optional.empty();
+        }
+        long skipped = archived.getAsLong();
+        return pageable.getOffset() >= skipped + older.applyAsLong(through)
+                ? Optional.of(LookaheadPageRequest.of(pageable, sort, skipped)) : Optional.empty();
+    }
+
+    private boolean reachesArchive(KeysetCursor cursor) {
+        return parkingArchiveService.getArchivedThrough().filter(through -> !cursor.getEntryDate().isAfter(through)).isPresent();
     }
 }
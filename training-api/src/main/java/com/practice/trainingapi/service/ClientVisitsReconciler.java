@@ -0,0 +1,64 @@
+package com.practice.trainingapi.service;
+
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.repository.ClientRepository;
+import com.practice.trainingapi.repository.ClientVacancyArchiveRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Recomputes clients.completed_visits from the parking history (hot and archived), one short transaction per chunk of client ids.
+// Each chunk runs between two archive moves, so a session moving from the hot table to the archive is counted exactly once.
+// Like the archiving itself, this assumes one instance runs both jobs.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ClientVisitsReconciler {
+
+    private static final long CHUNK_SIZE = 500;
+
+    private final ClientRepository clientRepository;
+    private final ClientVacancyArchiveRepository clientVacancyArchiveRepository;
+    private final ParkingArchiveService parkingArchiveService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${parking.loyalty.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (backfillOnStartup) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${parking.loyalty.reconcile-cron:0 0 3 * * *}")
+    public void reconcile() {
+        Long first = clientRepository.findMinId();
+        Long last = clientRepository.findMaxId();
+        if (first == null || last == null) {
+            return;
+        }
+        long updated = 0;
+        for (long start = first; start <= last; start += CHUNK_SIZE) {
+            long from = start;
+            long to = start + CHUNK_SIZE - 1;
+            Integer rows = parkingArchiveService.whileNotMoving(() -> transactionTemplate.execute(status -> {
+                int reconciled = clientRepository.reconcileCompletedVisits(from, to);
+                clientVacancyArchiveRepository.addCompletedVisits(from, to);
+                return reconciled;
+            }));
+            updated += rows == null ? 0 : rows;
+        }
+        // the archived visits are added over JDBC, behind the second-level cache
+        entityManagerFactory.getCache().evict(Client.class);
+        log.info("Completed visits reconciled for {} clients", updated);
+    }
+}
@@ -0,0 +1,67 @@
+package com.practice.trainingapi.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+// Totals for count=approx, each one counted at most once per ttl however many pages are requested
+@Component
+public class CountCache {
+
+    private final Map<String, Entry> counts = new ConcurrentHashMap<>();
+
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public CountCache(@Value("${parking.pagination.count-ttl-ms:60000}") long ttlMillis,
+                      @Value("${parking.pagination.count-cache-size:10000}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    public long get(String key, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        Entry entry = counts.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.count;
+        }
+        if (entry == null && counts.size() >= maxEntries) {
+            counts.values().removeIf(cached -> cached.expiresAt <= now);
+            // Still full of live totals: counted without being cached, so the map never grows past the bound
+            if (counts.size() >= maxEntries) {
+                return counter.getAsLong();
+            }
+        }
+        // compute holds the key while counting, so concurrent misses share one count query
+        return counts.compute(key, (k, cached) -> cached != null && cached.expiresAt > now
+                ? cached
+                : new Entry(counter.getAsLong(), now + ttlMillis)).count;
+    }
+
+    // The total reported for a count mode, null when totals are left out
+    public LongSupplier total(CountMode count, String key, LongSupplier counter) {
+        return switch (count) {
+            case EXACT -> counter;
+            case NONE -> null;
+            case APPROXIMATE -> () -> get(key, counter);
+        };
+    }
+
+    // The rows read decide whether there is a next page, a counted total is only trusted when it does not contradict them
+    public static long clamp(long total, long offset, int elements, boolean hasNext) {
+        if (hasNext) {
+            return Math.max(total, offset + elements + 1);
+        }
+        return elements > 0 ? offset + elements : Math.min(total, offset);
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final long count;
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.practice.trainingapi.service;
+
+import java.util.Locale;
+
+// How list endpoints report their totals: EXACT runs a count query, NONE only tells whether a next page exists
+// and APPROXIMATE reuses a recently cached count.
+public enum CountMode {
+    EXACT, NONE, APPROXIMATE;
+
+    public static CountMode from(String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "exact" -> EXACT;
+            case "false", "none" -> NONE;
+            case "approx", "approximate" -> APPROXIMATE;
+            default -> throw new IllegalArgumentException(String.format("Invalid count mode '%s'", value));
+        };
+    }
+}
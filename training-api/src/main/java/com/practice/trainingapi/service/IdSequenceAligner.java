@@ -0,0 +1,55 @@
+package com.practice.trainingapi.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+// Tables created before the move from IDENTITY to pooled-lo sequences keep their ids; each sequence is
+// moved past max(id) at startup so new blocks never overlap existing rows. Sequences only move forward.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class IdSequenceAligner {
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "users", "users_seq",
+            "clients", "clients_seq",
+            "vacancies", "vacancies_seq",
+            "customers_has_vacancies", "customers_has_vacancies_seq",
+            "parking_reports", "parking_reports_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    // Schema (tables and sequences) is created with the EntityManagerFactory
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void align() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        boolean h2 = "H2".equalsIgnoreCase(database);
+        SEQUENCES.forEach((table, sequence) -> {
+            Long maxId = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+            if (maxId == null) {
+                return;
+            }
+            long next = maxId + 1;
+            if (h2) {
+                List<Long> current = jdbcTemplate.queryForList("select base_value from information_schema.sequences " +
+                        "where lower(sequence_name) = ?", Long.class, sequence);
+                if (!current.isEmpty() && current.get(0) < next) {
+                    jdbcTemplate.execute("alter sequence " + sequence + " restart with " + next);
+                    log.info("Sequence {} moved to {}", sequence, next);
+                }
+            } else if (jdbcTemplate.update("update " + sequence + " set next_val = ? where next_val < ?", next, next) > 0) {
+                log.info("Sequence {} moved to {}", sequence, next);
+            }
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package com.practice.trainingapi.service;
+
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.repository.VacancyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class OccupancyService {
+
+    private final VacancyRepository vacancyRepository;
+
+    private final LongAdder free = new LongAdder();
+    private final LongAdder busy = new LongAdder();
+
+    // Taken exclusively while the totals are recounted. Every transaction that moves a total holds it shared from
+    // just before its commit until its delta is applied, so the recount never sees a committed change whose delta is
+    // still pending, nor misses one whose delta was already applied.
+    private final ReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${parking.occupancy.reconcile-interval-ms:300000}",
+            initialDelayString = "${parking.occupancy.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        reconcileLock.writeLock().lock();
+        try {
+            long freeCount = 0;
+            long busyCount = 0;
+            for (Object[] row : vacancyRepository.countByStatus()) {
+                if (row[0] == Vacancy.StatusVacancy.FREE) {
+                    freeCount = (Long) row[1];
+                } else {
+                    busyCount += (Long) row[1];
+                }
+            }
+            long freeDrift = freeCount - free.sum();
+            long busyDrift = busyCount - busy.sum();
+            free.add(freeDrift);
+            busy.add(busyDrift);
+            if (freeDrift != 0 || busyDrift != 0) {
+                log.info("Occupancy reconciled: free {} ({}), busy {} ({})", freeCount, freeDrift, busyCount, busyDrift);
+            }
+        } finally {
+            reconcileLock.writeLock().unlock();
+        }
+    }
+
+    public void vacancyCreated(Vacancy.StatusVacancy status) {
+        if (status == Vacancy.StatusVacancy.FREE) {
+            applyOnCommit(1, 0);
+        } else {
+            applyOnCommit(0, 1);
+        }
+    }
+
+    public void vacanciesCreated(int freeVacancies, int busyVacancies) {
+        applyOnCommit(freeVacancies, busyVacancies);
+    }
+
+    public void occupied(int vacancies) {
+        applyOnCommit(-vacancies, vacancies);
+    }
+
+    public void released(int vacancies) {
+        applyOnCommit(vacancies, -vacancies);
+    }
+
+    private void applyOnCommit(long freeDelta, long busyDelta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reconcileLock.readLock().lock();
+            try {
+                apply(freeDelta, busyDelta);
+            } finally {
+                reconcileLock.readLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                reconcileLock.readLock().lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!locked) {
+                    return;
+                }
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        apply(freeDelta, busyDelta);
+                    }
+                } finally {
+                    reconcileLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private void apply(long freeDelta, long busyDelta) {
+        free.add(freeDelta);
+        busy.add(busyDelta);
+    }
+
+    public long getFree() {
+        return free.sum();
+    }
+
+    public long getBusy() {
+        return busy.sum();
+    }
+}
@@ -0,0 +1,80 @@
+package com.practice.trainingapi.service;
+
+import com.practice.trainingapi.entity.ClientVacancy;
+import com.practice.trainingapi.repository.ClientVacancyRepository;
+import com.practice.trainingapi.repository.projection.OpenSession;
+import com.practice.trainingapi.util.ParkingUtils;
+import com.practice.trainingapi.util.TransactionUtils;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sessions without checkout, keyed by receipt and by normalized plate. Its size is bounded by the number of vacancies,
+// not by history.
+@Slf4j
+@Component
+public class OpenSessionIndex {
+
+    private final ClientVacancyRepository clientVacancyRepository;
+    private final Map<String, OpenSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, String> receiptsByPlate = new ConcurrentHashMap<>();
+
+    // when true this instance is the only writer, so a receipt missing from the index is reported
+    // as not found without falling back to the database
+    @Getter
+    private final boolean authoritative;
+
+    public OpenSessionIndex(ClientVacancyRepository clientVacancyRepository,
+                            @Value("${parking.sessions.authoritative:false}") boolean authoritative) {
+        this.clientVacancyRepository = clientVacancyRepository;
+        this.authoritative = authoritative;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        sessions.clear();
+        receiptsByPlate.clear();
+        clientVacancyRepository.findAllOpenSessions().forEach(this::put);
+        log.info("Open session index loaded with {} sessions", sessions.size());
+    }
+
+    public Optional<OpenSession> find(String receipt) {
+        return Optional.ofNullable(sessions.get(receipt));
+    }
+
+    public Optional<OpenSession> findByPlate(String plate) {
+        String receipt = receiptsByPlate.get(ParkingUtils.normalizePlate(plate));
+        return receipt == null ? Optional.empty() : find(receipt);
+    }
+
+    public void opened(ClientVacancy clientVacancy) {
+        OpenSession session = new OpenSession(clientVacancy.getReceipt(), clientVacancy.getId(),
+                clientVacancy.getVacancy().getId(), clientVacancy.getEntryDate(), clientVacancy.getPlate());
+        TransactionUtils.afterCommit(() -> put(session));
+    }
+
+    public void closed(ClientVacancy clientVacancy) {
+        String receipt = clientVacancy.getReceipt();
+        String plate = ParkingUtils.normalizePlate(clientVacancy.getPlate());
+        TransactionUtils.afterCommit(() -> {
+            sessions.remove(receipt);
+            receiptsByPlate.remove(plate, receipt);
+        });
+    }
+
+    private void put(OpenSession session) {
+        sessions.put(session.getReceipt(), session);
+        receiptsByPlate.put(ParkingUtils.normalizePlate(session.getPlate()), session.getReceipt());
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+}
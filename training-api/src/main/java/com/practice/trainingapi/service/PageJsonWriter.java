@@ -0,0 +1,62 @@
+package com.practice.trainingapi.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+// Writes a list endpoint page from the query's row stream: each row is serialized as soon as it is read and then dropped,
+// and the pagination metadata follows the content. The fields are the ones documented by PageableDto.
+// The JSON is only copied to the response once the whole page is written, so a query failing half way still ends in
+// an error status rather than a 200 with truncated JSON.
+@RequiredArgsConstructor
+@Component
+public class PageJsonWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ObjectMapper objectMapper;
+
+    // The rows are read with a LookaheadPageRequest, the row past the page only tells there is a next one.
+    // A null total leaves totalPages and totalElements out (count=false).
+    public void write(Stream<?> rows, Pageable pageable, LongSupplier total, OutputStream output) throws IOException {
+        ByteArrayOutputStream page = new ByteArrayOutputStream(BUFFER_SIZE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(page, JsonEncoding.UTF8);
+        int size = pageable.getPageSize();
+        int elements = 0;
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("content");
+        Iterator<?> iterator = rows.iterator();
+        while (elements < size && iterator.hasNext()) {
+            generator.writeObject(iterator.next());
+            elements++;
+        }
+        boolean hasNext = iterator.hasNext();
+        generator.writeEndArray();
+
+        generator.writeBooleanField("first", pageable.getPageNumber() == 0);
+        generator.writeBooleanField("last", !hasNext);
+        generator.writeNumberField("page", pageable.getPageNumber());
+        generator.writeNumberField("size", size);
+        generator.writeNumberField("pageElements", elements);
+        generator.writeBooleanField("hasNext", hasNext);
+        if (total != null) {
+            long totalElements = CountCache.clamp(total.getAsLong(), pageable.getOffset(), elements, hasNext);
+            generator.writeNumberField("totalPages", (int) Math.ceil((double) totalElements / size));
+            generator.writeNumberField("totalElements", totalElements);
+        }
+        generator.writeEndObject();
+        generator.close();
+        page.writeTo(output);
+        output.flush();
+    }
+}
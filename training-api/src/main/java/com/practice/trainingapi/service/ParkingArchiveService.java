@@ -0,0 +1,151 @@
+package com.practice.trainingapi.service;
+
+import com.practice.trainingapi.repository.ClientVacancyArchiveRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Moves sessions closed before the retention window out of customers_has_vacancies, so the hot table only holds
+// open sessions and the last months. Each chunk of ids is copied and deleted in its own short transaction, with a
+// pause in between, so check-ins and check-outs never wait on the archiving.
+@Slf4j
+@Service
+public class ParkingArchiveService {
+
+    private final ClientVacancyArchiveRepository archiveRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int retainMonths;
+    private final int batchSize;
+    private final long pauseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    // Held while a chunk moves, so readers that need the hot and archived rows to add up never see it half way
+    private final ReentrantLock moveLock = new ReentrantLock();
+    private boolean partitioned;
+    private int partitionedBelow;
+    // Latest entry date moved to the archive, reads starting after it never need the archive
+    private volatile LocalDateTime archivedThrough;
+
+    public ParkingArchiveService(ClientVacancyArchiveRepository archiveRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${parking.archive.retain-months:6}") int retainMonths,
+                                 @Value("${parking.archive.batch-size:500}") int batchSize,
+                                 @Value("${parking.archive.pause-ms:100}") long pauseMillis) {
+        this.archiveRepository = archiveRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retainMonths = retainMonths;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @PostConstruct
+    public void init() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        partitioned = "MySQL".equalsIgnoreCase(database);
+        archiveRepository.createTable(partitioned);
+        if (partitioned) {
+            partitionedBelow = archiveRepository.findPartitionBounds().stream().mapToInt(Integer::intValue).max().orElse(0);
+        }
+        archivedThrough = archiveRepository.findMaxEntryDate();
+    }
+
+    public Optional<LocalDateTime> getArchivedThrough() {
+        return Optional.ofNullable(archivedThrough);
+    }
+
+    // Runs the work between two chunk moves; keep it short, the archiving waits on it
+    public <T> T whileNotMoving(Supplier<T> work) {
+        moveLock.lock();
+        try {
+            return work.get();
+        } finally {
+            moveLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${parking.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        archive(LocalDate.now().withDayOfMonth(1).minusMonths(retainMonths).atStartOfDay());
+    }
+
+    // Sessions that entered and left before the cutoff are moved, walking the hot table by id
+    public long archive(LocalDateTime before) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Archiving already running, skipped");
+            return 0;
+        }
+        try {
+            long begin = System.currentTimeMillis();
+            long moved = 0;
+            long lastId = 0;
+            List<Long> ids;
+            while (!Thread.currentThread().isInterrupted()
+                    && !(ids = archiveRepository.findArchivableIds(lastId, before, batchSize)).isEmpty()) {
+                lastId = ids.get(ids.size() - 1);
+                moved += moveChunk(ids);
+                pause();
+            }
+            if (moved > 0) {
+                log.info("Archived {} sessions closed before {} in {} ms", moved, before, System.currentTimeMillis() - begin);
+            }
+            return moved;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long moveChunk(List<Long> ids) {
+        Integer lastMonth = archiveRepository.findMaxArchiveMonth(ids);
+        if (lastMonth == null) {
+            return 0;
+        }
+        // DDL commits implicitly on MySQL, so partitions are added before the move transaction starts
+        ensurePartitionsThrough(lastMonth);
+        Integer moved = whileNotMoving(() -> {
+            Integer rows = transactionTemplate.execute(status -> archiveRepository.moveToArchive(ids));
+            archivedThrough = archiveRepository.findMaxEntryDate();
+            return rows;
+        });
+        return moved == null ? 0 : moved;
+    }
+
+    private void ensurePartitionsThrough(int month) {
+        if (!partitioned) {
+            return;
+        }
+        int target = ClientVacancyArchiveRepository.nextMonth(month);
+        while (partitionedBelow < target) {
+            int partitionMonth = partitionedBelow == 0 ? month : partitionedBelow;
+            int below = ClientVacancyArchiveRepository.nextMonth(partitionMonth);
+            archiveRepository.addPartition(partitionMonth, below);
+            partitionedBelow = below;
+        }
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
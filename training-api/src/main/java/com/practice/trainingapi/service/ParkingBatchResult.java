@@ -0,0 +1,31 @@
+package com.practice.trainingapi.service;
+
+import com.practice.trainingapi.entity.ClientVacancy;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ParkingBatchResult {
+
+    private final ClientVacancy clientVacancy;
+    private final Failure failure;
+    private final String error;
+
+    public enum Failure {
+        CLIENT_NOT_FOUND, NO_FREE_VACANCY, RECEIPT_NOT_FOUND, ALREADY_CHECKED_OUT
+    }
+
+    public static ParkingBatchResult success(ClientVacancy clientVacancy) {
+        return new ParkingBatchResult(clientVacancy, null, null);
+    }
+
+    public static ParkingBatchResult failure(Failure failure, String error) {
+        return new ParkingBatchResult(null, failure, error);
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+}
@@ -0,0 +1,152 @@
+package com.practice.trainingapi.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.practice.trainingapi.repository.ClientVacancyArchiveRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Rows go from a forward-only cursor straight to the response, one at a time: nothing is hydrated into
+// entities or kept in a persistence context, so memory stays flat whatever the size of the export.
+@Service
+public class ParkingExportService {
+
+    private static final String[] COLUMNS = {"receipt", "plate", "brand", "model", "color", "clientCpf",
+            "vacancyCode", "vacancyZone", "entryDate", "departureDate", "value", "discount"};
+
+    // The trailing id only orders the rows, it is not written out
+    private static final String SELECT = "select cv.numero_recibo, cv.placa, cv.marca, cv.modelo, cv.cor, c.cpf, " +
+            "v.code, v.zone, cv.entry_date, cv.departure_date, cv.valor, cv.desconto, cv.id " +
+            "from %s cv " +
+            "join clients c on c.id = cv.id_client " +
+            "join vacancies v on v.id = cv.vacancy_id " +
+            "where cv.entry_date >= ? and cv.entry_date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ParkingArchiveService parkingArchiveService;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ParkingExportService(DataSource dataSource, ParkingArchiveService parkingArchiveService,
+                                @Value("${parking.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.parkingArchiveService = parkingArchiveService;
+    }
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    public void export(Format format, LocalDateTime from, LocalDateTime to, String zone,
+                       OutputStream output) throws IOException {
+        List<Object> args = new ArrayList<>();
+        String sql = select("customers_has_vacancies", from, to, zone, args);
+        // The archive is only read when the range starts before the last archived session, and then only
+        // the month partitions the range covers
+        boolean archived = parkingArchiveService.getArchivedThrough().filter(through -> !from.isAfter(through)).isPresent();
+        if (archived) {
+            sql = "select * from (" + sql + " union all "
+                    + select(ClientVacancyArchiveRepository.TABLE, from, to, zone, args)
+                    + " and cv.archive_month between ? and ?) h order by h.entry_date, h.id";
+            args.add(ClientVacancyArchiveRepository.archiveMonth(from));
+            args.add(ClientVacancyArchiveRepository.archiveMonth(to));
+        } else {
+            sql += " order by cv.entry_date, cv.id";
+        }
+
+        if (format == Format.CSV) {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write(String.join(",", COLUMNS));
+            writer.newLine();
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> writeCsv(rs, writer), args.toArray());
+            writer.flush();
+        } else {
+            JsonGenerator generator = jsonFactory.createGenerator(output, JsonEncoding.UTF8);
+            generator.setRootValueSeparator(null);
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> writeJson(rs, generator), args.toArray());
+            generator.flush();
+        }
+    }
+
+    private static String select(String table, LocalDateTime from, LocalDateTime to, String zone, List<Object> args) {
+        String sql = String.format(SELECT, table);
+        args.add(Timestamp.valueOf(from));
+        args.add(Timestamp.valueOf(to));
+        if (zone != null) {
+            sql += " and v.zone = ?";
+            args.add(zone);
+        }
+        return sql;
+    }
+
+    private void writeCsv(ResultSet rs, BufferedWriter writer) throws SQLException {
+        try {
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                String value = value(rs, i);
+                if (value != null) {
+                    writer.write(escapeCsv(value));
+                }
+            }
+            writer.newLine();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeJson(ResultSet rs, JsonGenerator generator) throws SQLException {
+        try {
+            generator.writeStartObject();
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                String value = value(rs, i);
+                if (value == null) {
+                    continue;
+                }
+                if (i > COLUMNS.length - 2) {
+                    generator.writeFieldName(COLUMNS[i - 1]);
+                    generator.writeNumber(value);
+                } else {
+                    generator.writeStringField(COLUMNS[i - 1], value);
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String value(ResultSet rs, int column) throws SQLException {
+        if (COLUMNS[column - 1].endsWith("Date")) {
+            Timestamp timestamp = rs.getTimestamp(column);
+            return timestamp == null ? null : timestamp.toLocalDateTime().toString();
+        }
+        return rs.getString(column);
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -2,14 +2,29 @@ package com.practice.trainingapi.service;
 
 import com.practice.trainingapi.entity.Client;
 import com.practice.trainingapi.entity.ClientVacancy;
+import com.practice.trainingapi.entity.Reservation;
 import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.event.CheckedInEvent;
+import com.practice.trainingapi.event.CheckedOutEvent;
+import com.practice.trainingapi.event.ParkingEventBus;
+import com.practice.trainingapi.repository.projection.RevenueRow;
 import com.practice.trainingapi.util.ParkingUtils;
+import com.practice.trainingapi.util.ReceiptGenerator;
+import com.practice.trainingapi.util.TariffPlan;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
@@ -18,21 +33,91 @@ public class ParkingService {
     private final ClientVacancyService clientVacancyService;
     private final ClientService clientService;
     private final VacancyService vacancyService;
+    private final ReceiptGenerator receiptGenerator;
+    private final TariffEngine tariffEngine;
+    private final ParkingEventBus parkingEventBus;
+    private final OpenSessionIndex openSessionIndex;
+    private final ReservationService reservationService;
+    private final RevenueRollupService revenueRollupService;
 
     @Transactional
-    public ClientVacancy checkIn(ClientVacancy clientVacancy) {
+    public ClientVacancy checkIn(ClientVacancy clientVacancy, VacancyPreference preference) {
         Client client = clientService.findByCpf(clientVacancy.getClient().getCpf());
         clientVacancy.setClient(client);
 
-        Vacancy vacancy = vacancyService.findByFreeVacancy();
+        Vacancy vacancy = vacancyService.findByFreeVacancy(preference);
         vacancy.setStatus(Vacancy.StatusVacancy.BUSY);
         clientVacancy.setVacancy(vacancy);
 
+        return open(clientVacancy);
+    }
+
+    // The reserved vacancy becomes the session's vacancy, nothing is allocated again
+    @Transactional
+    public ClientVacancy checkIn(ClientVacancy clientVacancy, String reservationCode) {
+        Reservation reservation = reservationService.convert(reservationCode, clientVacancy.getClient().getCpf());
+        clientVacancy.setClient(reservation.getClient());
+        clientVacancy.setVacancy(reservation.getVacancy());
+        return open(clientVacancy);
+    }
+
+    private ClientVacancy open(ClientVacancy clientVacancy) {
         clientVacancy.setEntryDate(LocalDateTime.now());
 
-        clientVacancy.setReceipt(ParkingUtils.generateReceipt());
+        clientVacancy.setReceipt(receiptGenerator.generate());
 
-        return clientVacancyService.insert(clientVacancy);
+        ClientVacancy checkedIn = clientVacancyService.insert(clientVacancy);
+        openSessionIndex.opened(checkedIn);
+        parkingEventBus.publish(CheckedInEvent.of(checkedIn));
+        return checkedIn;
+    }
+
+    @Transactional
+    public List<ParkingBatchResult> checkIn(List<ClientVacancy> clientVacancies, List<VacancyPreference> preferences) {
+        if (clientVacancies.isEmpty()) {
+            return List.of();
+        }
+        Set<String> cpfs = clientVacancies.stream().map(cv -> cv.getClient().getCpf()).collect(Collectors.toSet());
+        Map<String, Client> clients = clientService.findAllByCpf(cpfs).stream()
+                .collect(Collectors.toMap(Client::getCpf, Function.identity()));
+
+        List<VacancyPreference> resolved = new ArrayList<>();
+        for (int i = 0; i < clientVacancies.size(); i++) {
+            if (clients.containsKey(clientVacancies.get(i).getClient().getCpf())) {
+                resolved.add(preferences.get(i));
+            }
+        }
+        Iterator<Vacancy> vacancies = vacancyService.claimFreeVacancies(resolved).iterator();
+
+        LocalDateTime entryDate = LocalDateTime.now();
+        List<ParkingBatchResult> results = new ArrayList<>();
+        List<ClientVacancy> checkedIn = new ArrayList<>();
+        for (ClientVacancy clientVacancy : clientVacancies) {
+            String cpf = clientVacancy.getClient().getCpf();
+            if (!clients.containsKey(cpf)) {
+                results.add(ParkingBatchResult.failure(ParkingBatchResult.Failure.CLIENT_NOT_FOUND,
+                        String.format("Client with this CPF '%s', not found", cpf)));
+                continue;
+            }
+            Vacancy vacancy = vacancies.next();
+            if (vacancy == null) {
+                results.add(ParkingBatchResult.failure(ParkingBatchResult.Failure.NO_FREE_VACANCY, "cannot found a vacancy free"));
+                continue;
+            }
+            clientVacancy.setClient(clients.get(cpf));
+            clientVacancy.setVacancy(vacancy);
+            clientVacancy.setEntryDate(entryDate);
+            clientVacancy.setReceipt(receiptGenerator.generate());
+            checkedIn.add(clientVacancy);
+            results.add(ParkingBatchResult.success(clientVacancy));
+        }
+
+        clientVacancyService.insertAll(checkedIn);
+        checkedIn.forEach(clientVacancy -> {
+            openSessionIndex.opened(clientVacancy);
+            parkingEventBus.publish(CheckedInEvent.of(clientVacancy));
+        });
+        return results;
     }
 
     @Transactional
@@ -41,17 +126,75 @@ public class ParkingService {
 
         LocalDateTime departureDate = LocalDateTime.now();
 
-        BigDecimal value = ParkingUtils.calculateCost(clientVacancy.getEntryDate(), departureDate);
-        clientVacancy.setValue(value);
+        TariffPlan plan = tariffEngine.planFor(clientVacancy.getVacancy().getType().name(), clientVacancy.getEntryDate());
+        long value = plan.cost(clientVacancy.getEntryDate(), departureDate);
+        clientVacancy.setValue(ParkingUtils.toMoney(value));
 
-        long totalTimes = clientVacancyService.getTotalParkedTimesComplete(clientVacancy.getClient().getCpf());
+        long totalTimes = clientService.registerCompletedVisits(clientVacancy.getClient(), 1);
 
-        BigDecimal discount = ParkingUtils.calculateDiscount(value, totalTimes);
-        clientVacancy.setDiscount(discount);
+        clientVacancy.setDiscount(ParkingUtils.toMoney(plan.discount(value, totalTimes)));
 
         clientVacancy.setDepartureDate(departureDate);
         clientVacancy.getVacancy().setStatus(Vacancy.StatusVacancy.FREE);
+        vacancyService.release(clientVacancy.getVacancy());
 
-        return clientVacancyService.insert(clientVacancy);
+        ClientVacancy checkedOut = clientVacancyService.insert(clientVacancy);
+        revenueRollupService.record(List.of(RevenueRow.of(checkedOut)));
+        openSessionIndex.closed(checkedOut);
+        parkingEventBus.publish(CheckedOutEvent.of(checkedOut));
+        return checkedOut;
     };
+
+    @Transactional
+    public List<ParkingBatchResult> checkOut(List<String> receipts) {
+        if (receipts.isEmpty()) {
+            return List.of();
+        }
+        Map<String, ClientVacancy> openSessions = clientVacancyService.findAllByReceipt(receipts).stream()
+                .collect(Collectors.toMap(ClientVacancy::getReceipt, Function.identity()));
+        // Only the receipts that will fail are looked up again, to tell an unknown one from one already checked out
+        Set<String> closed = clientVacancyService.findCheckedOutReceipts(receipts.stream()
+                .filter(receipt -> !openSessions.containsKey(receipt)).collect(Collectors.toSet()));
+        Set<String> done = new HashSet<>();
+        Map<Client, Long> visits = openSessions.values().stream()
+                .collect(Collectors.groupingBy(ClientVacancy::getClient, Collectors.counting()));
+        Map<Client, Long> totalTimes = new HashMap<>();
+        visits.forEach((client, count) -> totalTimes.put(client, clientService.registerCompletedVisits(client, count)));
+
+        LocalDateTime departureDate = LocalDateTime.now();
+        List<ParkingBatchResult> results = new ArrayList<>();
+        List<ClientVacancy> checkedOut = new ArrayList<>();
+        for (String receipt : receipts) {
+            ClientVacancy clientVacancy = openSessions.remove(receipt);
+            if (clientVacancy == null) {
+                results.add(done.contains(receipt) || closed.contains(receipt)
+                        ? ParkingBatchResult.failure(ParkingBatchResult.Failure.ALREADY_CHECKED_OUT,
+                                String.format("Receipt '%s' checkout already done", receipt))
+                        : ParkingBatchResult.failure(ParkingBatchResult.Failure.RECEIPT_NOT_FOUND,
+                                String.format("Receipt '%s' not found in system", receipt)));
+                continue;
+            }
+            done.add(receipt);
+            Client client = clientVacancy.getClient();
+            TariffPlan plan = tariffEngine.planFor(clientVacancy.getVacancy().getType().name(), clientVacancy.getEntryDate());
+            long value = plan.cost(clientVacancy.getEntryDate(), departureDate);
+            clientVacancy.setValue(ParkingUtils.toMoney(value));
+            clientVacancy.setDiscount(ParkingUtils.toMoney(plan.discount(value, totalTimes.get(client))));
+            totalTimes.merge(client, 1L, Long::sum);
+
+            clientVacancy.setDepartureDate(departureDate);
+            clientVacancy.getVacancy().setStatus(Vacancy.StatusVacancy.FREE);
+            vacancyService.release(clientVacancy.getVacancy());
+            checkedOut.add(clientVacancy);
+            results.add(ParkingBatchResult.success(clientVacancy));
+        }
+
+        clientVacancyService.insertAll(checkedOut);
+        revenueRollupService.record(checkedOut.stream().map(RevenueRow::of).toList());
+        checkedOut.forEach(clientVacancy -> {
+            openSessionIndex.closed(clientVacancy);
+            parkingEventBus.publish(CheckedOutEvent.of(clientVacancy));
+        });
+        return results;
+    }
 }
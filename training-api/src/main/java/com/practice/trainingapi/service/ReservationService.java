@@ -0,0 +1,146 @@
+package com.practice.trainingapi.service;
+
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.entity.Reservation;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.exception.EntityNotFoundException;
+import com.practice.trainingapi.repository.ReservationRepository;
+import com.practice.trainingapi.repository.projection.ReservationDeadline;
+import com.practice.trainingapi.util.HashedTimerWheel;
+import com.practice.trainingapi.util.ReceiptGenerator;
+import com.practice.trainingapi.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static com.practice.trainingapi.entity.Reservation.Status.ACTIVE;
+import static com.practice.trainingapi.entity.Reservation.Status.CANCELLED;
+import static com.practice.trainingapi.entity.Reservation.Status.CONVERTED;
+import static com.practice.trainingapi.entity.Reservation.Status.EXPIRED;
+
+// Expirations are driven by an in-memory timer wheel instead of polling the table. The wheel is rebuilt
+// from the active reservations on startup and on a sweep every parking.reservations.sweep-ms, which also picks up
+// holds made by other instances: those expire up to one sweep late.
+@Slf4j
+@Service
+public class ReservationService {
+
+    private final ReservationRepository reservationRepository;
+    private final VacancyService vacancyService;
+    private final ReceiptGenerator receiptGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration hold;
+    private final HashedTimerWheel<Long> timers;
+
+    public ReservationService(ReservationRepository reservationRepository,
+                              VacancyService vacancyService,
+                              ReceiptGenerator receiptGenerator,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${parking.reservations.hold:15m}") Duration hold,
+                              @Value("${parking.reservations.tick-ms:1000}") long tickMillis,
+                              @Value("${parking.reservations.wheel-size:512}") int wheelSize) {
+        this.reservationRepository = reservationRepository;
+        this.vacancyService = vacancyService;
+        this.receiptGenerator = receiptGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hold = hold;
+        this.timers = new HashedTimerWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${parking.reservations.sweep-ms:60000}",
+            initialDelayString = "${parking.reservations.sweep-ms:60000}")
+    public void load() {
+        List<ReservationDeadline> active = reservationRepository.findDeadlinesByStatus(ACTIVE);
+        active.forEach(deadline -> schedule(deadline.getId(), deadline.getExpiresAt()));
+        log.debug("Reservation timers loaded with {} active reservations", active.size());
+    }
+
+    @Transactional
+    public Reservation reserve(Client client, VacancyPreference preference) {
+        LocalDateTime now = LocalDateTime.now();
+        Reservation reservation = new Reservation();
+        reservation.setClient(client);
+        reservation.setVacancy(vacancyService.reserve(preference));
+        reservation.setCode(receiptGenerator.generate());
+        reservation.setCreatedAt(now);
+        reservation.setExpiresAt(now.plus(hold));
+        Reservation saved = reservationRepository.save(reservation);
+        TransactionUtils.afterCommit(() -> schedule(saved.getId(), saved.getExpiresAt()));
+        return saved;
+    }
+
+    @Transactional
+    public Reservation convert(String code, String cpf) {
+        Reservation reservation = findActive(code, cpf);
+        finish(reservation, CONVERTED);
+        vacancyService.occupyReserved(reservation.getVacancy());
+        return reservation;
+    }
+
+    @Transactional
+    public Reservation cancel(String code, String cpf) {
+        Reservation reservation = findActive(code, cpf);
+        finish(reservation, CANCELLED);
+        free(reservation.getVacancy());
+        return reservation;
+    }
+
+    @Scheduled(fixedDelayString = "${parking.reservations.tick-ms:1000}")
+    public void expire() {
+        List<Long> due = timers.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        Integer expired = transactionTemplate.execute(status -> {
+            int count = 0;
+            for (Reservation reservation : reservationRepository
+                    .findAllByIdInAndStatusAndExpiresAtLessThanEqual(due, ACTIVE, LocalDateTime.now())) {
+                if (reservationRepository.updateStatus(reservation.getId(), ACTIVE, EXPIRED) == 1) {
+                    free(reservation.getVacancy());
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.debug("{} reservations expired", expired);
+    }
+
+    private Reservation findActive(String code, String cpf) {
+        return reservationRepository.findByCode(code)
+                .filter(reservation -> reservation.getClient().getCpf().equals(cpf))
+                .filter(reservation -> reservation.getStatus() == ACTIVE)
+                .filter(reservation -> reservation.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new EntityNotFoundException(
+                        String.format("Reservation '%s' not found or no longer active", code)));
+    }
+
+    private void finish(Reservation reservation, Reservation.Status target) {
+        if (reservationRepository.updateStatus(reservation.getId(), ACTIVE, target) != 1) {
+            throw new EntityNotFoundException(
+                    String.format("Reservation '%s' not found or no longer active", reservation.getCode()));
+        }
+        reservation.setStatus(target);
+        TransactionUtils.afterCommit(() -> timers.cancel(reservation.getId()));
+    }
+
+    private void free(Vacancy vacancy) {
+        vacancy.setStatus(Vacancy.StatusVacancy.FREE);
+        vacancyService.release(vacancy);
+    }
+
+    private void schedule(Long id, LocalDateTime expiresAt) {
+        timers.schedule(id, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+}
@@ -0,0 +1,177 @@
+package com.practice.trainingapi.service;
+
+import com.practice.trainingapi.entity.RevenueRollup;
+import com.practice.trainingapi.exception.RebuildInProgressException;
+import com.practice.trainingapi.repository.ClientVacancyArchiveRepository;
+import com.practice.trainingapi.repository.ClientVacancyRepository;
+import com.practice.trainingapi.repository.RevenueRollupRepository;
+import com.practice.trainingapi.repository.projection.RevenueRow;
+import com.practice.trainingapi.util.ParkingUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Hourly and daily revenue per zone, written by the check-out transaction itself and read back by range,
+// so a report never aggregates over the parking history.
+@Slf4j
+@Service
+public class RevenueRollupService {
+
+    private static final long CHUNK_SIZE = 5_000;
+    // A check-out stamped before midnight has committed by this long after it
+    private static final Duration CHECKOUT_GRACE = Duration.ofMinutes(5);
+
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final ClientVacancyRepository clientVacancyRepository;
+    private final ClientVacancyArchiveRepository clientVacancyArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final ExecutorService rebuildExecutor;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public RevenueRollupService(RevenueRollupRepository revenueRollupRepository,
+                                ClientVacancyRepository clientVacancyRepository,
+                                ClientVacancyArchiveRepository clientVacancyArchiveRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${parking.reports.rebuild-threads:4}") int rebuildThreads) {
+        this.revenueRollupRepository = revenueRollupRepository;
+        this.clientVacancyRepository = clientVacancyRepository;
+        this.clientVacancyArchiveRepository = clientVacancyArchiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // A chunk reads the hot and the archive table from one snapshot, so a session archived in between is
+        // counted exactly once
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.rebuildExecutor = Executors.newFixedThreadPool(rebuildThreads);
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    // Joins the check-out's transaction, the increments commit or roll back with the check-out itself
+    @Transactional
+    public void record(List<RevenueRow> checkouts) {
+        Map<RevenueRollup.Key, RevenueRollup> increments = new HashMap<>();
+        checkouts.forEach(checkout -> accumulate(increments, checkout));
+        revenueRollupRepository.addAll(increments.values());
+    }
+
+    @Transactional(readOnly = true)
+    public List<RevenueRollup> findAll(RevenueRollup.Granularity granularity, LocalDateTime from, LocalDateTime to,
+                                       String zone) {
+        return revenueRollupRepository.findAllInRange(granularity, granularity.bucketOf(from), to, zone);
+    }
+
+    // Recomputes the rollups of every closed day from the raw history, archived sessions included: id chunks are
+    // aggregated in parallel and replace the closed days in one transaction. Check-outs only add to the current
+    // day's buckets, so they never race the swap; the current day is rebuilt once it has closed.
+    public RebuildResult rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new RebuildInProgressException("Revenue rollups rebuild already running, try again when it finishes");
+        }
+        try {
+            return rebuild(RevenueRollup.Granularity.DAY.bucketOf(LocalDateTime.now().minus(CHECKOUT_GRACE)));
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private RebuildResult rebuild(LocalDateTime closedBefore) {
+        long begin = System.currentTimeMillis();
+        Long first = min(clientVacancyRepository.findMinId(), clientVacancyArchiveRepository.findMinId());
+        Long last = max(clientVacancyRepository.findMaxId(), clientVacancyArchiveRepository.findMaxId());
+        Map<RevenueRollup.Key, RevenueRollup> rollups = new HashMap<>();
+        long sessions = 0;
+        if (first != null && last != null) {
+            List<CompletableFuture<Map<RevenueRollup.Key, RevenueRollup>>> chunks = new ArrayList<>();
+            for (long start = first; start <= last; start += CHUNK_SIZE) {
+                long from = start;
+                long to = start + CHUNK_SIZE - 1;
+                chunks.add(CompletableFuture.supplyAsync(() -> aggregate(from, to, closedBefore), rebuildExecutor));
+            }
+            for (CompletableFuture<Map<RevenueRollup.Key, RevenueRollup>> chunk : chunks) {
+                for (RevenueRollup rollup : chunk.join().values()) {
+                    merge(rollups, rollup);
+                    if (rollup.getGranularity() == RevenueRollup.Granularity.DAY) {
+                        sessions += rollup.getSessions();
+                    }
+                }
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            revenueRollupRepository.deleteAllBefore(closedBefore);
+            revenueRollupRepository.addAll(rollups.values());
+        });
+        long elapsed = System.currentTimeMillis() - begin;
+        log.info("Revenue rollups before {} rebuilt from {} sessions into {} rollups in {} ms",
+                closedBefore, sessions, rollups.size(), elapsed);
+        return new RebuildResult(sessions, rollups.size(), elapsed);
+    }
+
+    private Map<RevenueRollup.Key, RevenueRollup> aggregate(long from, long to, LocalDateTime closedBefore) {
+        return snapshotTemplate.execute(status -> {
+            Map<RevenueRollup.Key, RevenueRollup> rollups = new HashMap<>();
+            clientVacancyRepository.findRevenueRows(from, to, closedBefore).forEach(row -> accumulate(rollups, row));
+            clientVacancyArchiveRepository.findRevenueRows(from, to, closedBefore).forEach(row -> accumulate(rollups, row));
+            return rollups;
+        });
+    }
+
+    private static Long min(Long hot, Long archived) {
+        return hot == null ? archived : archived == null ? hot : Math.min(hot, archived);
+    }
+
+    private static Long max(Long hot, Long archived) {
+        return hot == null ? archived : archived == null ? hot : Math.max(hot, archived);
+    }
+
+    private static void accumulate(Map<RevenueRollup.Key, RevenueRollup> rollups, RevenueRow row) {
+        for (RevenueRollup.Granularity granularity : RevenueRollup.Granularity.values()) {
+            merge(rollups, new RevenueRollup(granularity, granularity.bucketOf(row.getDepartureDate()), row.getZone(),
+                    1, ParkingUtils.toCents(row.getValue()), ParkingUtils.toCents(row.getDiscount())));
+        }
+    }
+
+    private static void merge(Map<RevenueRollup.Key, RevenueRollup> rollups, RevenueRollup rollup) {
+        RevenueRollup.Key key = new RevenueRollup.Key(rollup.getGranularity(), rollup.getBucketStart(), rollup.getZone());
+        RevenueRollup current = rollups.get(key);
+        if (current == null) {
+            rollups.put(key, rollup);
+            return;
+        }
+        current.setSessions(current.getSessions() + rollup.getSessions());
+        current.setRevenueCents(current.getRevenueCents() + rollup.getRevenueCents());
+        current.setDiscountCents(current.getDiscountCents() + rollup.getDiscountCents());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RebuildResult {
+
+        private final long sessions;
+        private final int rollups;
+        private final long elapsedMillis;
+
+    }
+}
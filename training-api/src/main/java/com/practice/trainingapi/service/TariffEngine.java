@@ -0,0 +1,61 @@
+package com.practice.trainingapi.service;
+
+import com.practice.trainingapi.config.TariffProperties;
+import com.practice.trainingapi.util.TariffPlan;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+public class TariffEngine {
+
+    private final Map<String, TariffPlan> plans = new HashMap<>();
+    private final Map<String, TariffPlan> typePlans = new HashMap<>();
+    private final TariffPlan defaultPlan;
+    private final TariffPlan nightPlan;
+    private final LocalTime nightStart;
+    private final LocalTime nightEnd;
+
+    public TariffEngine(TariffProperties properties) {
+        properties.getPlans().forEach((name, plan) -> plans.put(name, new TariffPlan(
+                plan.getFirstFifteenMinutes(), plan.getFirstHour(), plan.getAdditionalFifteenMinutes(),
+                plan.getDailyCap(), plan.getDiscountPercentage(), plan.getDiscountEvery())));
+        this.defaultPlan = plan(properties.getDefaultPlan());
+        TariffProperties.Night night = properties.getNight();
+        this.nightPlan = night.getPlan() == null ? null : plan(night.getPlan());
+        this.nightStart = night.getStart();
+        this.nightEnd = night.getEnd();
+        properties.getTypes().forEach((type, name) -> typePlans.put(type.toUpperCase(Locale.ROOT), plan(name)));
+    }
+
+    // A plan configured for the vacancy type applies day and night, other types pay the night or default plan
+    public TariffPlan planFor(String type, LocalDateTime entryDate) {
+        TariffPlan typePlan = type == null ? null : typePlans.get(type.toUpperCase(Locale.ROOT));
+        if (typePlan != null) {
+            return typePlan;
+        }
+        if (nightPlan != null && isNight(entryDate.toLocalTime())) {
+            return nightPlan;
+        }
+        return defaultPlan;
+    }
+
+    public TariffPlan plan(String name) {
+        TariffPlan plan = plans.get(name);
+        if (plan == null) {
+            throw new IllegalArgumentException(String.format("Tariff plan '%s' is not configured", name));
+        }
+        return plan;
+    }
+
+    private boolean isNight(LocalTime time) {
+        if (nightStart.isBefore(nightEnd)) {
+            return !time.isBefore(nightStart) && time.isBefore(nightEnd);
+        }
+        return !time.isBefore(nightStart) || time.isBefore(nightEnd);
+    }
+}
@@ -32,7 +32,7 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public User findByUsername(String username) {
-        return userRepository.findByUsername(username).orElseThrow(() -> new EntityNotFoundException(String.format("user %s not found", username)));
+        return userRepository.findBySimpleNaturalId(username).orElseThrow(() -> new EntityNotFoundException(String.format("user %s not found", username)));
     }
 
     @Transactional(readOnly = true)
@@ -44,7 +44,7 @@ public class UserService {
     public User insert(User user) {
         try {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
-            return userRepository.save(user);
+            return userRepository.saveAndFlush(user);
         } catch (DataIntegrityViolationException e) {
             throw new UsernameUniqueViolationException(String.format("Username {%s} already exists", user.getUsername()));
         }
@@ -0,0 +1,120 @@
+package com.practice.trainingapi.service;
+
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.repository.projection.VacancySpot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.practice.trainingapi.entity.Vacancy.StatusVacancy.FREE;
+
+// Free vacancies are kept in one pool per spot type and zone, ordered by distance to the entrance,
+// so the best free spot is the head of a pool. A vacancy is free while it is in its pool; whoever
+// removes it first owns it.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class VacancyAllocator {
+
+    private static final Comparator<VacancySpot> NEAREST =
+            Comparator.comparingInt(VacancySpot::getDistance).thenComparing(VacancySpot::getId);
+
+    private final VacancyRepository vacancyRepository;
+
+    private final Map<Long, VacancySpot> spots = new ConcurrentHashMap<>();
+    private final Map<Vacancy.SpotType, Map<String, ConcurrentSkipListMap<VacancySpot, Boolean>>> pools = new ConcurrentHashMap<>();
+    private final AtomicInteger free = new AtomicInteger();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        spots.clear();
+        pools.clear();
+        free.set(0);
+        vacancyRepository.findAllSpots().forEach(spot -> spots.put(spot.getId(), spot));
+        vacancyRepository.findIdsByStatus(FREE).forEach(this::release);
+        log.info("Vacancy allocator loaded with {} free vacancies", free.get());
+    }
+
+    public void register(Vacancy vacancy) {
+        spots.put(vacancy.getId(), VacancySpot.of(vacancy));
+        if (vacancy.getStatus() == FREE) {
+            release(vacancy.getId());
+        }
+    }
+
+    public Optional<Long> claim(VacancyPreference preference) {
+        Map<String, ConcurrentSkipListMap<VacancySpot, Boolean>> zones = pools.get(preference.getType());
+        if (zones == null) {
+            return Optional.empty();
+        }
+        if (preference.getZone() != null) {
+            ConcurrentSkipListMap<VacancySpot, Boolean> zone = zones.get(preference.getZone());
+            Optional<Long> id = zone == null ? Optional.empty() : claimNearest(List.of(zone));
+            if (id.isPresent()) {
+                return id;
+            }
+        }
+        return claimNearest(zones.values());
+    }
+
+    public void release(Long id) {
+        VacancySpot spot = spots.get(id);
+        if (spot == null) {
+            log.warn("Vacancy id={} is not registered in the allocator", id);
+            return;
+        }
+        if (pool(spot).putIfAbsent(spot, Boolean.TRUE) == null) {
+            free.incrementAndGet();
+        }
+    }
+
+    public void markBusy(Long id) {
+        VacancySpot spot = spots.get(id);
+        if (spot != null && pool(spot).remove(spot) != null) {
+            free.decrementAndGet();
+        }
+    }
+
+    public int freeCount() {
+        return free.get();
+    }
+
+    // O(zones * log n): compare the head of every candidate pool and take the nearest one
+    private Optional<Long> claimNearest(Collection<ConcurrentSkipListMap<VacancySpot, Boolean>> candidates) {
+        while (true) {
+            ConcurrentSkipListMap<VacancySpot, Boolean> nearestPool = null;
+            VacancySpot nearest = null;
+            for (ConcurrentSkipListMap<VacancySpot, Boolean> pool : candidates) {
+                Map.Entry<VacancySpot, Boolean> head = pool.firstEntry();
+                if (head != null && (nearest == null || NEAREST.compare(head.getKey(), nearest) < 0)) {
+                    nearest = head.getKey();
+                    nearestPool = pool;
+                }
+            }
+            if (nearest == null) {
+                return Optional.empty();
+            }
+            if (nearestPool.remove(nearest) != null) {
+                free.decrementAndGet();
+                return Optional.of(nearest.getId());
+            }
+        }
+    }
+
+    private ConcurrentSkipListMap<VacancySpot, Boolean> pool(VacancySpot spot) {
+        return pools.computeIfAbsent(spot.getType(), type -> new ConcurrentHashMap<>())
+                .computeIfAbsent(spot.getZone(), zone -> new ConcurrentSkipListMap<>(NEAREST));
+    }
+}
@@ -0,0 +1,26 @@
+package com.practice.trainingapi.service;
+
+import com.practice.trainingapi.entity.Vacancy;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class VacancyBatchResult {
+
+    private final Vacancy vacancy;
+    private final String error;
+
+    public static VacancyBatchResult success(Vacancy vacancy) {
+        return new VacancyBatchResult(vacancy, null);
+    }
+
+    public static VacancyBatchResult failure(String error) {
+        return new VacancyBatchResult(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,120 @@
+package com.practice.trainingapi.service;
+
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.util.TransactionUtils;
+import com.practice.trainingapi.web.dto.OccupancyResponseDto;
+import com.practice.trainingapi.web.dto.VacancyResponseDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One in-process sink fans vacancy changes out to every stream subscriber. Changes are coalesced per
+// vacancy over a short window and each subscriber keeps only the latest item when it cannot keep up.
+@Component
+public class VacancyEventPublisher {
+
+    private final Sinks.Many<VacancyResponseDto> changes = Sinks.many().multicast().directBestEffort();
+    private final OccupancyService occupancyService;
+    private final Flux<ServerSentEvent<Object>> vacancyEvents;
+    private final Flux<ServerSentEvent<Object>> occupancyEvents;
+    private final Duration heartbeat;
+    private final long timeoutMillis;
+
+    public VacancyEventPublisher(OccupancyService occupancyService,
+                                 @Value("${parking.stream.coalesce-ms:250}") long coalesceMillis,
+                                 @Value("${parking.stream.heartbeat-ms:15000}") long heartbeatMillis,
+                                 @Value("${parking.stream.timeout-ms:-1}") long timeoutMillis) {
+        this.occupancyService = occupancyService;
+        this.heartbeat = Duration.ofMillis(heartbeatMillis);
+        this.timeoutMillis = timeoutMillis;
+        Duration window = Duration.ofMillis(coalesceMillis);
+        this.vacancyEvents = changes.asFlux()
+                .buffer(window)
+                .filter(burst -> !burst.isEmpty())
+                .map(VacancyEventPublisher::latestPerVacancy)
+                .map(burst -> event("vacancies", burst))
+                .share();
+        this.occupancyEvents = changes.asFlux()
+                .sample(window)
+                .map(change -> event("occupancy", occupancy()))
+                .share();
+    }
+
+    public void statusChanged(Vacancy vacancy) {
+        VacancyResponseDto change = new VacancyResponseDto(vacancy.getId(), vacancy.getCode(), vacancy.getStatus().name(),
+                vacancy.getZone(), vacancy.getLevel(), vacancy.getType().name(), vacancy.getDistance());
+        TransactionUtils.afterCommit(() -> emit(change));
+    }
+
+    public Flux<ServerSentEvent<Object>> stream() {
+        Flux<ServerSentEvent<Object>> occupancy = Mono.fromSupplier(() -> event("occupancy", occupancy()))
+                .concatWith(occupancyEvents.onBackpressureLatest());
+        Flux<ServerSentEvent<Object>> keepAlive = Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.builder().comment("keep-alive").build());
+        return Flux.merge(occupancy, vacancyEvents.onBackpressureLatest(), keepAlive);
+    }
+
+    // The stream timeout only applies to this emitter, other async requests keep the container default. Each
+    // subscriber sends on its own thread one event at a time, so a slow client drops to the latest event
+    // instead of blocking the shared fluxes.
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Disposable subscription = stream()
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .subscribe(event -> send(emitter, event), emitter::completeWithError, emitter::complete);
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, ServerSentEvent<Object> event) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (event.comment() != null) {
+            builder.comment(event.comment());
+        }
+        if (event.event() != null) {
+            builder.name(event.event()).data(event.data(), MediaType.APPLICATION_JSON);
+        }
+        try {
+            emitter.send(builder);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private synchronized void emit(VacancyResponseDto change) {
+        changes.tryEmitNext(change);
+    }
+
+    private OccupancyResponseDto occupancy() {
+        long free = occupancyService.getFree();
+        long busy = occupancyService.getBusy();
+        return new OccupancyResponseDto(free + busy, free, busy);
+    }
+
+    private static List<VacancyResponseDto> latestPerVacancy(List<VacancyResponseDto> burst) {
+        Map<Long, VacancyResponseDto> latest = new LinkedHashMap<>();
+        burst.forEach(change -> latest.put(change.getId(), change));
+        return new ArrayList<>(latest.values());
+    }
+
+    private static ServerSentEvent<Object> event(String name, Object data) {
+        return ServerSentEvent.builder(data).event(name).build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.practice.trainingapi.service;
+
+import com.practice.trainingapi.entity.Vacancy;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Zone is a soft preference (other zones are used when it is full), the spot type must match.
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class VacancyPreference {
+
+    private static final VacancyPreference NONE = new VacancyPreference(null, Vacancy.SpotType.STANDARD);
+
+    private final String zone;
+    private final Vacancy.SpotType type;
+
+    public static VacancyPreference none() {
+        return NONE;
+    }
+
+    public static VacancyPreference of(String zone, Vacancy.SpotType type) {
+        return new VacancyPreference(zone, type == null ? Vacancy.SpotType.STANDARD : type);
+    }
+}
@@ -4,39 +4,231 @@ import com.practice.trainingapi.entity.Vacancy;
 import com.practice.trainingapi.exception.CodeUniqueViolationException;
 import com.practice.trainingapi.exception.EntityNotFoundException;
 import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.practice.trainingapi.entity.Vacancy.StatusVacancy.BUSY;
 import static com.practice.trainingapi.entity.Vacancy.StatusVacancy.FREE;
+import static com.practice.trainingapi.entity.Vacancy.StatusVacancy.RESERVED;
 
 @RequiredArgsConstructor
 @Service
 public class VacancyService {
 
     private final VacancyRepository vacancyRepository;
+    private final VacancyAllocator vacancyAllocator;
+    private final OccupancyService occupancyService;
+    private final VacancyEventPublisher vacancyEventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public Vacancy save(Vacancy vacancy) {
         try {
-            return vacancyRepository.save(vacancy);
+            Vacancy saved = vacancyRepository.saveAndFlush(vacancy);
+            TransactionUtils.afterCommit(() -> vacancyAllocator.register(saved));
+            occupancyService.vacancyCreated(saved.getStatus());
+            vacancyEventPublisher.statusChanged(saved);
+            return saved;
         } catch (DataIntegrityViolationException ex) {
             throw new CodeUniqueViolationException(String.format("Vacancy with code '%s' already registered", vacancy.getCode()));
         }
     }
 
+    // A code registered by a concurrent request after the lookup fails the flush of the whole list, the rows are then
+    // inserted again one per transaction so only the duplicated ones are rejected
+    public List<VacancyBatchResult> saveAll(List<Vacancy> vacancies) {
+        if (vacancies.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return transactionTemplate.execute(status -> insertNew(vacancies));
+        } catch (DataIntegrityViolationException ex) {
+            List<VacancyBatchResult> results = new ArrayList<>(vacancies.size());
+            for (Vacancy vacancy : vacancies) {
+                vacancy.setId(null);
+                try {
+                    results.addAll(transactionTemplate.execute(status -> insertNew(List.of(vacancy))));
+                } catch (DataIntegrityViolationException rowEx) {
+                    results.add(alreadyRegistered(vacancy));
+                }
+            }
+            return results;
+        }
+    }
+
+    private List<VacancyBatchResult> insertNew(List<Vacancy> vacancies) {
+        Set<String> registered = new HashSet<>(vacancyRepository.findCodesIn(
+                vacancies.stream().map(Vacancy::getCode).collect(Collectors.toSet())));
+        Set<String> accepted = new HashSet<>();
+        List<Vacancy> inserts = new ArrayList<>();
+        for (Vacancy vacancy : vacancies) {
+            if (!registered.contains(vacancy.getCode()) && accepted.add(vacancy.getCode())) {
+                inserts.add(vacancy);
+            }
+        }
+
+        Map<String, Vacancy> saved = new HashMap<>();
+        if (!inserts.isEmpty()) {
+            vacancyRepository.saveAllAndFlush(inserts).forEach(vacancy -> saved.put(vacancy.getCode(), vacancy));
+        }
+
+        List<Vacancy> created = new ArrayList<>(saved.values());
+        int free = 0;
+        for (Vacancy vacancy : created) {
+            if (vacancy.getStatus() == FREE) {
+                free++;
+            }
+            vacancyEventPublisher.statusChanged(vacancy);
+        }
+        TransactionUtils.afterCommit(() -> created.forEach(vacancyAllocator::register));
+        occupancyService.vacanciesCreated(free, created.size() - free);
+
+        List<VacancyBatchResult> results = new ArrayList<>(vacancies.size());
+        for (Vacancy vacancy : vacancies) {
+            Vacancy inserted = saved.remove(vacancy.getCode());
+            results.add(inserted != null ? VacancyBatchResult.success(inserted) : alreadyRegistered(vacancy));
+        }
+        return results;
+    }
+
+    private static VacancyBatchResult alreadyRegistered(Vacancy vacancy) {
+        return VacancyBatchResult.failure(String.format("Vacancy with code '%s' already registered", vacancy.getCode()));
+    }
+
     @Transactional(readOnly = true)
     public Vacancy findByCode(String code) {
-        return vacancyRepository.findByCode(code).orElseThrow(
+        return vacancyRepository.findBySimpleNaturalId(code).orElseThrow(
                 () -> new EntityNotFoundException(String.format("Vacancy with code '%s' not found", code))
         );
     }
 
-    @Transactional(readOnly = true)
-    public Vacancy findByFreeVacancy() {
-        return vacancyRepository.findFirstByStatus(FREE).orElseThrow(
+    @Transactional
+    public Vacancy findByFreeVacancy(VacancyPreference preference) {
+        return claim(preference, BUSY);
+    }
+
+    @Transactional
+    public Vacancy reserve(VacancyPreference preference) {
+        return claim(preference, RESERVED);
+    }
+
+    // A reserved vacancy is already counted as busy, so only its status changes
+    public void occupyReserved(Vacancy vacancy) {
+        vacancy.setStatus(BUSY);
+        vacancyEventPublisher.statusChanged(vacancy);
+    }
+
+    private Vacancy claim(VacancyPreference preference, Vacancy.StatusVacancy target) {
+        Long id = claimFreeVacancyId(preference, target);
+        occupancyService.occupied(1);
+        Vacancy vacancy = vacancyRepository.findById(id).orElseThrow(
+                () -> new EntityNotFoundException(String.format("Vacancy id=%s not found", id))
+        );
+        vacancyEventPublisher.statusChanged(vacancy);
+        return vacancy;
+    }
+
+    // Returns one vacancy per preference, in the same order, or null where none of that type is free
+    @Transactional
+    public List<Vacancy> claimFreeVacancies(List<VacancyPreference> preferences) {
+        Long[] claimed = new Long[preferences.size()];
+        List<Long> candidates = new ArrayList<>();
+        for (int i = 0; i < claimed.length; i++) {
+            claimed[i] = vacancyAllocator.claim(preferences.get(i)).orElse(null);
+            if (claimed[i] != null) {
+                candidates.add(claimed[i]);
+            }
+        }
+        Set<Long> locked = candidates.isEmpty()
+                ? Set.of()
+                : new HashSet<>(markBusy(vacancyRepository.findFreeIdsForUpdateSkipLocked(candidates)));
+
+        List<Long> ids = new ArrayList<>();
+        Set<Vacancy.SpotType> exhausted = new HashSet<>();
+        for (int i = 0; i < claimed.length; i++) {
+            if (claimed[i] != null && !locked.contains(claimed[i])) {
+                claimed[i] = null;
+            }
+            Vacancy.SpotType type = preferences.get(i).getType();
+            if (claimed[i] == null && !exhausted.contains(type)) {
+                claimed[i] = vacancyRepository.findFreeIdForUpdateSkipLocked(type.name(), preferences.get(i).getZone())
+                        .orElse(null);
+                if (claimed[i] == null) {
+                    exhausted.add(type);
+                } else {
+                    markBusy(List.of(claimed[i]));
+                }
+            }
+            if (claimed[i] != null) {
+                ids.add(claimed[i]);
+            }
+        }
+        TransactionUtils.afterRollback(() -> ids.forEach(vacancyAllocator::release));
+        if (ids.isEmpty()) {
+            return Arrays.asList(new Vacancy[claimed.length]);
+        }
+        occupancyService.occupied(ids.size());
+        Map<Long, Vacancy> vacancies = vacancyRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Vacancy::getId, Function.identity()));
+        vacancies.values().forEach(vacancyEventPublisher::statusChanged);
+        return Arrays.stream(claimed).map(id -> id == null ? null : vacancies.get(id)).toList();
+    }
+
+    private List<Long> markBusy(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            ids.forEach(vacancyAllocator::markBusy);
+            vacancyRepository.updateStatus(ids, FREE, BUSY);
+            evict(ids);
+        }
+        return ids;
+    }
+
+    private Long claimFreeVacancyId(VacancyPreference preference, Vacancy.StatusVacancy target) {
+        Optional<Long> candidate;
+        while ((candidate = vacancyAllocator.claim(preference)).isPresent()) {
+            Long id = candidate.get();
+            if (vacancyRepository.updateStatus(id, FREE, target) == 1) {
+                evict(List.of(id));
+                TransactionUtils.afterRollback(() -> vacancyAllocator.release(id));
+                return id;
+            }
+        }
+
+        Long id = vacancyRepository.findFreeIdForUpdateSkipLocked(preference.getType().name(), preference.getZone()).orElseThrow(
                 () -> new EntityNotFoundException("cannot found a vacancy free")
         );
+        vacancyAllocator.markBusy(id);
+        vacancyRepository.updateStatus(id, FREE, target);
+        evict(List.of(id));
+        TransactionUtils.afterRollback(() -> vacancyAllocator.release(id));
+        return id;
+    }
+
+    // Evicted right away so the claim reads the new status back, and again after commit in case a concurrent read
+    // cached the old row in between
+    private void evict(List<Long> ids) {
+        vacancyRepository.evictFromCache(ids);
+        TransactionUtils.afterCommit(() -> vacancyRepository.evictFromCache(ids));
+    }
+
+    public void release(Vacancy vacancy) {
+        TransactionUtils.afterCommit(() -> vacancyAllocator.release(vacancy.getId()));
+        occupancyService.released(1);
+        vacancyEventPublisher.statusChanged(vacancy);
     }
 }
@@ -0,0 +1,75 @@
+package com.practice.trainingapi.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Hashed timing wheel: each timeout is hashed into the bucket of its deadline tick, so scheduling and
+// cancelling are O(1) and advancing only visits the buckets of the ticks that elapsed. Deadlines further
+// than one revolution away share a bucket with nearer ones and simply stay there until their tick comes.
+public class HashedTimerWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Map<K, Long>> buckets;
+    private final Map<K, Long> deadlines = new HashMap<>();
+    private long currentTick;
+
+    public HashedTimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new HashMap<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long tick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        buckets.get((int) (tick & mask)).put(key, tick);
+        deadlines.put(key, tick);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Long tick = deadlines.remove(key);
+        if (tick == null) {
+            return false;
+        }
+        buckets.get((int) (tick & mask)).remove(key);
+        return true;
+    }
+
+    public synchronized List<K> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        long ticks = Math.min(target - currentTick, buckets.size());
+        for (long i = 1; i <= ticks; i++) {
+            Iterator<Map.Entry<K, Long>> entries = buckets.get((int) ((currentTick + i) & mask)).entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<K, Long> entry = entries.next();
+                if (entry.getValue() <= target) {
+                    entries.remove();
+                    deadlines.remove(entry.getKey());
+                    expired.add(entry.getKey());
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, target);
+        return expired;
+    }
+
+    public synchronized int size() {
+        return deadlines.size();
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+}
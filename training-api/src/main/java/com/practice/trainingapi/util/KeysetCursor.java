@@ -0,0 +1,38 @@
+package com.practice.trainingapi.util;
+
+import com.practice.trainingapi.exception.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position after the last row of a page, ordered by (entryDate, id). Clients only see it as an opaque token.
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    public static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private final LocalDateTime entryDate;
+    private final Long id;
+
+    public String encode() {
+        String position = entryDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            return new KeysetCursor(LocalDateTime.parse(position[0]), Long.parseLong(position[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException ex) {
+            throw new InvalidCursorException(String.format("Cursor '%s' is invalid", token));
+        }
+    }
+}
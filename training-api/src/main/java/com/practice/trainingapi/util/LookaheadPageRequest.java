@@ -0,0 +1,36 @@
+package com.practice.trainingapi.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+// Same offset as the requested page but one row more, the same look-ahead Spring Data does for a Slice, so a streamed
+// page knows whether there is a next one without a count query
+public class LookaheadPageRequest extends PageRequest {
+
+    private final long skipped;
+
+    private LookaheadPageRequest(Pageable pageable, Sort sort, long skipped) {
+        super(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        this.skipped = skipped;
+    }
+
+    public static LookaheadPageRequest of(Pageable pageable) {
+        return new LookaheadPageRequest(pageable, pageable.getSort(), 0);
+    }
+
+    // The same page read from a table that leaves out the first skipped rows of the listing
+    public static LookaheadPageRequest of(Pageable pageable, Sort sort, long skipped) {
+        return new LookaheadPageRequest(pageable, sort, skipped);
+    }
+
+    @Override
+    public int getPageSize() {
+        return super.getPageSize() + 1;
+    }
+
+    @Override
+    public long getOffset() {
+        return super.getOffset() - skipped;
+    }
+}
@@ -0,0 +1,12 @@
+package com.practice.trainingapi.util;
+
+import java.time.Instant;
+
+public interface ReceiptGenerator {
+
+    String generate();
+
+    boolean isValid(String receipt);
+
+    Instant timestampOf(String receipt);
+}
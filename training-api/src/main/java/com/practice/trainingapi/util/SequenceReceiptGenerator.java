@@ -0,0 +1,105 @@
+package com.practice.trainingapi.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Receipt = 41 bits of milliseconds since EPOCH | 10 bits of node id | 12 bits of sequence,
+// written as 13 Crockford base32 characters followed by a Luhn mod 32 check character.
+@Component
+public class SequenceReceiptGenerator implements ReceiptGenerator {
+
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int[] VALUES = new int[128];
+    private static final int BASE = ALPHABET.length;
+    private static final int ID_LENGTH = 13;
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = i;
+            VALUES[Character.toLowerCase(ALPHABET[i])] = i;
+        }
+    }
+
+    private final long nodeId;
+    private final AtomicLong state = new AtomicLong();
+
+    public SequenceReceiptGenerator(@Value("${parking.receipt.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException(String.format("Receipt node id must be between 0 and %s, was %s", MAX_NODE_ID, nodeId));
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String generate() {
+        long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        // more than 4096 receipts in the same millisecond borrow the next one instead of waiting
+        long next = state.accumulateAndGet(now, (previous, time) -> Math.max(time, previous + 1));
+        long millis = next >>> SEQUENCE_BITS;
+        long id = (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+        return encode(id);
+    }
+
+    @Override
+    public boolean isValid(String receipt) {
+        if (receipt == null || receipt.length() != ID_LENGTH + 1) {
+            return false;
+        }
+        int factor = 1;
+        int sum = 0;
+        for (int i = receipt.length() - 1; i >= 0; i--) {
+            int value = valueOf(receipt.charAt(i));
+            if (value < 0) {
+                return false;
+            }
+            int addend = factor * value;
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / BASE + addend % BASE;
+        }
+        return sum % BASE == 0;
+    }
+
+    @Override
+    public Instant timestampOf(String receipt) {
+        if (!isValid(receipt)) {
+            throw new IllegalArgumentException(String.format("Receipt '%s' is not valid", receipt));
+        }
+        long id = 0;
+        for (int i = 0; i < ID_LENGTH; i++) {
+            id = (id << 5) | valueOf(receipt.charAt(i));
+        }
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH);
+    }
+
+    private static String encode(long id) {
+        char[] chars = new char[ID_LENGTH + 1];
+        for (int i = ID_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        int factor = 2;
+        int sum = 0;
+        for (int i = ID_LENGTH - 1; i >= 0; i--) {
+            int addend = factor * VALUES[chars[i]];
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / BASE + addend % BASE;
+        }
+        chars[ID_LENGTH] = ALPHABET[(BASE - sum % BASE) % BASE];
+        return new String(chars);
+    }
+
+    private static int valueOf(char c) {
+        return c < VALUES.length ? VALUES[c] : -1;
+    }
+}
@@ -0,0 +1,77 @@
+package com.practice.trainingapi.util;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// All amounts are in cents. Prices for stays up to one day are precomputed per started 15-minute bucket.
+@Getter
+public class TariffPlan {
+
+    public static final TariffPlan STANDARD = new TariffPlan(500, 925, 175, 0, 30, 10);
+
+    private static final int BUCKET_MINUTES = 15;
+    private static final int BUCKETS_PER_DAY = 24 * 60 / BUCKET_MINUTES;
+    private static final int BUCKETS_PER_HOUR = 60 / BUCKET_MINUTES;
+
+    private final long firstFifteenMinutes;
+    private final long firstHour;
+    private final long additionalFifteenMinutes;
+    private final long dailyCap;
+    private final int discountPercentage;
+    private final int discountEvery;
+
+    @Getter(AccessLevel.NONE)
+    private final long[] prices = new long[BUCKETS_PER_DAY + 1];
+
+    public TariffPlan(long firstFifteenMinutes, long firstHour, long additionalFifteenMinutes, long dailyCap,
+                      int discountPercentage, int discountEvery) {
+        this.firstFifteenMinutes = firstFifteenMinutes;
+        this.firstHour = firstHour;
+        this.additionalFifteenMinutes = additionalFifteenMinutes;
+        this.dailyCap = dailyCap;
+        this.discountPercentage = discountPercentage;
+        this.discountEvery = discountEvery;
+        for (int buckets = 0; buckets <= BUCKETS_PER_DAY; buckets++) {
+            long price = uncapped(buckets);
+            prices[buckets] = dailyCap > 0 ? Math.min(price, dailyCap) : price;
+        }
+    }
+
+    public long cost(LocalDateTime entry, LocalDateTime departure) {
+        return cost(entry.until(departure, ChronoUnit.MINUTES));
+    }
+
+    public long cost(long minutes) {
+        long buckets = minutes <= 0 ? 0 : (minutes + BUCKET_MINUTES - 1) / BUCKET_MINUTES;
+        if (buckets <= BUCKETS_PER_DAY) {
+            return prices[(int) buckets];
+        }
+        if (dailyCap <= 0) {
+            return uncapped(buckets);
+        }
+        long days = buckets / BUCKETS_PER_DAY;
+        int rest = (int) (buckets % BUCKETS_PER_DAY);
+        return days * prices[BUCKETS_PER_DAY] + (rest == 0 ? 0 : prices[rest]);
+    }
+
+    public long discount(long cost, long numberOfTimes) {
+        if (discountEvery <= 0 || numberOfTimes <= 0 || numberOfTimes % discountEvery != 0) {
+            return 0;
+        }
+        // half down, as the previous double based calculation rounded exact half cents down
+        return (cost * discountPercentage + 49) / 100;
+    }
+
+    private long uncapped(long buckets) {
+        if (buckets <= 1) {
+            return firstFifteenMinutes;
+        }
+        if (buckets <= BUCKETS_PER_HOUR) {
+            return firstHour;
+        }
+        return firstHour + additionalFifteenMinutes * (buckets - BUCKETS_PER_HOUR);
+    }
+}
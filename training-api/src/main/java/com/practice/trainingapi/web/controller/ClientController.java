@@ -2,15 +2,14 @@ package com.practice.trainingapi.web.controller;
 
 import com.practice.trainingapi.entity.Client;
 import com.practice.trainingapi.jwt.JwtUserDetails;
-import com.practice.trainingapi.repository.projection.ClientProjection;
 import com.practice.trainingapi.service.ClientService;
+import com.practice.trainingapi.service.CountMode;
 import com.practice.trainingapi.service.UserService;
 import com.practice.trainingapi.web.dto.ClientCreateDto;
 import com.practice.trainingapi.web.dto.ClientResponseDto;
 import com.practice.trainingapi.web.dto.exception.ErrorMessage;
 import com.practice.trainingapi.web.dto.mapper.ClientMapper;
 import com.practice.trainingapi.web.dto.PageableDto;
-import com.practice.trainingapi.web.dto.mapper.PageableMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -21,13 +20,14 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import static io.swagger.v3.oas.annotations.enums.ParameterIn.QUERY;
 
@@ -42,7 +42,7 @@ public class ClientController {
 
     @Operation(summary = "Create a new client",
             description = "Recurso para criar um novo cliente vinculado a um usuário cadastrado. " +
-                    "Request requires use a new bearer token. Restricted access to Role='CLIENT'",
+                    "Request requires use a new bearer token. Restricted access to Role='USER'",
             security = @SecurityRequirement(name = "security"),
             responses = {
                     @ApiResponse(responseCode = "201", description = "Success to create resource",
@@ -55,7 +55,7 @@ public class ClientController {
                             content = @Content(mediaType = " application/json;charset=UTF-8", schema = @Schema(implementation = ErrorMessage.class)))
             })
     @PostMapping
-    @PreAuthorize("hasRole('CLIENT')")
+    @PreAuthorize("hasRole('USER')")
     public ResponseEntity<ClientResponseDto> create(@RequestBody @Valid ClientCreateDto dto, @AuthenticationPrincipal JwtUserDetails userDetails) {
         Client client = ClientMapper.toClient(dto);
         client.setUser(userService.findById(userDetails.getId()));
@@ -93,8 +93,13 @@ public class ClientController {
                             content = @Content(schema = @Schema(type = "integer", defaultValue = "5")),
                             description = "Represents all elements for each page "
                     ),
+                    @Parameter(in = QUERY, name = "count", description = "true runs a count query for the totals, " +
+                            "false leaves them out and only reports hasNext, approx returns a total cached for a short while",
+                            content = @Content(schema = @Schema(type = "string", allowableValues = {"true", "false", "approx"},
+                                    defaultValue = "true"))
+                    ),
                     @Parameter(in = QUERY, name = "sort", hidden = true,
-                            array = @ArraySchema(schema = @Schema(type = "string", defaultValue = "nome,asc")),
+                            array = @ArraySchema(schema = @Schema(type = "string", defaultValue = "name,asc")),
                             description = "Represents the ordering results. Multiple sorting criteria are supported.")
             },
             responses = {
@@ -108,9 +113,11 @@ public class ClientController {
                     )
             })
     @GetMapping
-    public ResponseEntity<PageableDto> getAll(@Parameter(hidden = true) @PageableDefault(size = 5, sort = {"name"}) Pageable pageable) {
-        Page<ClientProjection> client = clientService.findAll(pageable);
-        return ResponseEntity.ok(PageableMapper.toDto(client));
+    public ResponseEntity<StreamingResponseBody> getAll(@Parameter(hidden = true) @RequestParam(defaultValue = "true") CountMode count,
+                                                        @Parameter(hidden = true) @PageableDefault(size = 5, sort = {"name"}) Pageable pageable) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(output -> clientService.writeAll(pageable, count, output));
     }
 
     @Operation(summary = "Retrieve authenticated client data",
@@ -127,7 +134,7 @@ public class ClientController {
                     )
             })
     @GetMapping("/details")
-    @PreAuthorize("hasRole('CLIENT')")
+    @PreAuthorize("hasRole('USER')")
     public ResponseEntity<ClientResponseDto> getDetails(@AuthenticationPrincipal JwtUserDetails userDetails) {
         Client client = clientService.findByUserId(userDetails.getId());
         return ResponseEntity.ok(ClientMapper.toDto(client));
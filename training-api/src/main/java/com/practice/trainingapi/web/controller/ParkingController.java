@@ -2,15 +2,20 @@ package com.practice.trainingapi.web.controller;
 
 import com.practice.trainingapi.entity.ClientVacancy;
 import com.practice.trainingapi.jwt.JwtUserDetails;
-import com.practice.trainingapi.repository.projection.ClientVacancyProjection;
 import com.practice.trainingapi.service.ClientVacancyService;
+import com.practice.trainingapi.service.CountMode;
+import com.practice.trainingapi.service.ParkingBatchResult;
+import com.practice.trainingapi.service.ParkingExportService;
 import com.practice.trainingapi.service.ParkingService;
+import com.practice.trainingapi.service.VacancyPreference;
+import com.practice.trainingapi.util.KeysetCursor;
+import com.practice.trainingapi.web.dto.CursorPageDto;
 import com.practice.trainingapi.web.dto.PageableDto;
+import com.practice.trainingapi.web.dto.ParkingBatchResponseDto;
 import com.practice.trainingapi.web.dto.ParkingCreateDto;
 import com.practice.trainingapi.web.dto.ParkingResponseDto;
 import com.practice.trainingapi.web.dto.exception.ErrorMessage;
 import com.practice.trainingapi.web.dto.mapper.ClientVacancyMapper;
-import com.practice.trainingapi.web.dto.mapper.PageableMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.headers.Header;
@@ -20,20 +25,32 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static io.swagger.v3.oas.annotations.enums.ParameterIn.PATH;
 import static io.swagger.v3.oas.annotations.enums.ParameterIn.QUERY;
@@ -44,10 +61,17 @@ import static io.swagger.v3.oas.annotations.enums.ParameterIn.QUERY;
 @RequestMapping("api/v1/parking-lots")
 public class ParkingController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final String INVALID_FIELD = "INVALID_FIELD";
+
     private final ParkingService parkingService;
     private final ClientVacancyService clientVacancyService;
+    private final Validator validator;
+    private final ParkingExportService parkingExportService;
 
     @Operation(summary = "Check-in operation", description = "Resource for entering a vehicle into the parking lot. " +
+            "The nearest free spot of the requested type (STANDARD when omitted) is allocated, in the requested zone " +
+            "when it has one free. With a reservationCode the reserved spot is used instead. " +
             "Request requires use a bearer token. Restrict access to Role='ADMIN'",
             security = @SecurityRequirement(name = "security"),
             responses = {
@@ -57,7 +81,8 @@ public class ParkingController {
                                     schema = @Schema(implementation = ParkingResponseDto.class))),
                     @ApiResponse(responseCode = "404", description = "Possible causes: <br/>" +
                             "- Client CPF not registered in the system; <br/>" +
-                            "- No free vacancies were found;",
+                            "- No free vacancies were found; <br/>" +
+                            "- Reservation not found or no longer active;",
                             content = @Content(mediaType = " application/json;charset=UTF-8",
                                     schema = @Schema(implementation = ErrorMessage.class))),
                     @ApiResponse(responseCode = "422", description = "Resource not processed due to missing data or invalid data",
@@ -67,11 +92,15 @@ public class ParkingController {
                             content = @Content(mediaType = " application/json;charset=UTF-8",
                                     schema = @Schema(implementation = ErrorMessage.class)))
             })
-    @GetMapping
+    @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ParkingResponseDto> checkIn(@RequestBody @Valid ParkingCreateDto dto) {
         ClientVacancy clientVacancy = ClientVacancyMapper.toClientVacancy(dto);
-        parkingService.checkIn(clientVacancy);
+        if (dto.getReservationCode() != null) {
+            parkingService.checkIn(clientVacancy, dto.getReservationCode());
+        } else {
+            parkingService.checkIn(clientVacancy, ClientVacancyMapper.toPreference(dto));
+        }
         ParkingResponseDto responseDto = ClientVacancyMapper.toDto(clientVacancy);
         URI location = ServletUriComponentsBuilder
                 .fromCurrentRequestUri().path("/{receipt}")
@@ -82,8 +111,128 @@ public class ParkingController {
 
     ;
 
-    @Operation(summary = "Locate a parked vehicle", description = "Feature for returning a parked vehicle " +
-            "by receipt number. Request requires use a bearer token",
+    @Operation(summary = "Batch check-in operation", description = "Resource for entering several vehicles into the parking lot " +
+            "in a single request. Each item receives its own result, in the same order as the request: 201, 422 for an invalid " +
+            "item, 404 CLIENT_NOT_FOUND or 409 NO_FREE_VACANCY. " +
+            "Request requires use a bearer token. Restrict access to Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch processed, see the status of each item",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    array = @ArraySchema(schema = @Schema(implementation = ParkingBatchResponseDto.class)))),
+                    @ApiResponse(responseCode = "403", description = "Resource not allowed to Role='CLIENTE'",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ParkingBatchResponseDto>> checkInBatch(@RequestBody List<ParkingCreateDto> dtos) {
+        ParkingBatchResponseDto[] responses = new ParkingBatchResponseDto[dtos.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<ClientVacancy> clientVacancies = new ArrayList<>();
+        List<VacancyPreference> preferences = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            Set<ConstraintViolation<ParkingCreateDto>> violations = validator.validate(dtos.get(i));
+            if (!violations.isEmpty()) {
+                responses[i] = new ParkingBatchResponseDto(i, HttpStatus.UNPROCESSABLE_ENTITY.value(), INVALID_FIELD, null,
+                        toMessage(violations));
+                continue;
+            }
+            if (dtos.get(i).getReservationCode() != null) {
+                responses[i] = new ParkingBatchResponseDto(i, HttpStatus.UNPROCESSABLE_ENTITY.value(), INVALID_FIELD, null,
+                        "Invalid field - reservationCode: reserved check-ins are not accepted in a batch");
+                continue;
+            }
+            indexes.add(i);
+            clientVacancies.add(ClientVacancyMapper.toClientVacancy(dtos.get(i)));
+            preferences.add(ClientVacancyMapper.toPreference(dtos.get(i)));
+        }
+
+        List<ParkingBatchResult> results = parkingService.checkIn(clientVacancies, preferences);
+        for (int j = 0; j < results.size(); j++) {
+            int index = indexes.get(j);
+            responses[index] = toBatchDto(index, results.get(j), HttpStatus.CREATED);
+        }
+        return ResponseEntity.ok(Arrays.asList(responses));
+    }
+
+    @Operation(summary = "Batch checkout operation", description = "Resource for leaving several vehicles from the parking lot " +
+            "in a single request, using the receipts generated by check-in. Each receipt receives its own result, " +
+            "in the same order as the request: 200, 404 RECEIPT_NOT_FOUND or 409 ALREADY_CHECKED_OUT. " +
+            "Request requires use a bearer token. Restrict access to Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch processed, see the status of each item",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    array = @ArraySchema(schema = @Schema(implementation = ParkingBatchResponseDto.class)))),
+                    @ApiResponse(responseCode = "403", description = "Resource not allowed to Role='CLIENTE'",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping("/batch/check-out")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ParkingBatchResponseDto>> checkOutBatch(@RequestBody List<String> receipts) {
+        List<ParkingBatchResult> results = parkingService.checkOut(receipts);
+        List<ParkingBatchResponseDto> responses = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            responses.add(toBatchDto(i, results.get(i), HttpStatus.OK));
+        }
+        return ResponseEntity.ok(responses);
+    }
+
+    private ParkingBatchResponseDto toBatchDto(int index, ParkingBatchResult result, HttpStatus successStatus) {
+        if (result.isSuccess()) {
+            return new ParkingBatchResponseDto(index, successStatus.value(), null,
+                    ClientVacancyMapper.toDto(result.getClientVacancy()), null);
+        }
+        HttpStatus status = switch (result.getFailure()) {
+            case CLIENT_NOT_FOUND, RECEIPT_NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case NO_FREE_VACANCY, ALREADY_CHECKED_OUT -> HttpStatus.CONFLICT;
+        };
+        return new ParkingBatchResponseDto(index, status.value(), result.getFailure().name(), null, result.getError());
+    }
+
+    private String toMessage(Set<ConstraintViolation<ParkingCreateDto>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; ", "Invalid field - ", ""));
+    }
+
+    @Operation(summary = "Export parking history", description = "Resource for streaming every parking record with entry " +
+            "date in the range as CSV or NDJSON (one JSON object per line), optionally for a single zone. " +
+            "Archived sessions are included when the range reaches back to them. " +
+            "Request requires use a bearer token. Restrict access to Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(in = QUERY, name = "format", description = "CSV or NDJSON, default CSV"),
+                    @Parameter(in = QUERY, name = "from", description = "Start of the range, inclusive (yyyy-MM-ddTHH:mm:ss)", required = true),
+                    @Parameter(in = QUERY, name = "to", description = "End of the range, exclusive (yyyy-MM-ddTHH:mm:ss)", required = true),
+                    @Parameter(in = QUERY, name = "zone", description = "Zone of the lot, all zones when omitted")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Export streamed",
+                            content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")}),
+                    @ApiResponse(responseCode = "403", description = "Resource not allowed to Role='CLIENTE'",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "CSV") ParkingExportService.Format format,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String zone) {
+        boolean csv = format == ParkingExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=parking-history." + (csv ? "csv" : "ndjson"))
+                .body(output -> parkingExportService.export(format, from, to, zone, output));
+    }
+
+    @Operation(summary = "Locate a parking session", description = "Feature for returning a parking session " +
+            "by receipt number, the vehicle may still be parked or already checked out. Request requires use a bearer token",
             security = @SecurityRequirement(name = "security"),
             parameters = {
                     @Parameter(in = PATH, name = "receipt", description = "Number of receipt generate by check-in")
@@ -96,14 +245,39 @@ public class ParkingController {
                             content = @Content(mediaType = " application/json;charset=UTF-8",
                                     schema = @Schema(implementation = ErrorMessage.class)))
             })
-    @GetMapping
-    @PreAuthorize("hasAnyRole('ADMIN', CLIENT)")
+    @GetMapping("/{receipt}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public ResponseEntity<ParkingResponseDto> getByReceipt(@PathVariable String receipt) {
-        ClientVacancy clientVacancy = clientVacancyService.findByReceipt(receipt);
+        ClientVacancy clientVacancy = clientVacancyService.findAnyByReceipt(receipt);
         ParkingResponseDto dto = ClientVacancyMapper.toDto(clientVacancy);
         return ResponseEntity.ok(dto);
     }
 
+    @Operation(summary = "Locate a vehicle by plate", description = "Feature for returning the open parking session of a " +
+            "vehicle by its license plate or, when the vehicle is not parked, its latest sessions. The plate is normalized, " +
+            "so 'abc1234' and 'ABC-1234' are the same vehicle. Request requires use a bearer token. Restrict access to Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(in = PATH, name = "plate", description = "Vehicle license plate", required = true)
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Resource located successfully",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    array = @ArraySchema(schema = @Schema(implementation = ParkingResponseDto.class)))),
+                    @ApiResponse(responseCode = "404", description = "No parking session found for the plate.",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Resource not allowed to Role='CLIENTE'",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping("/plate/{plate}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ParkingResponseDto>> getByPlate(@PathVariable String plate) {
+        List<ClientVacancy> clientVacancies = clientVacancyService.findByPlate(plate);
+        return ResponseEntity.ok(clientVacancies.stream().map(ClientVacancyMapper::toDto).collect(Collectors.toList()));
+    }
+
     @Operation(summary = "Checkout operation", description = "Resource for leaving a vehicle from the parking a lot. " +
             "Request requires use a bearer token. Restrict access to Role='ADMIN'",
             security = @SecurityRequirement(name = "security"),
@@ -123,7 +297,7 @@ public class ParkingController {
                                     schema = @Schema(implementation = ErrorMessage.class)))
             })
     @PutMapping("/check-out/{receipt}")
-    @PreAuthorize("hasRole('admin')")
+    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ParkingResponseDto> checkOut(@PathVariable String receipt) {
         ClientVacancy clientVacancy = parkingService.checkOut(receipt);
         ParkingResponseDto dto = ClientVacancyMapper.toDto(clientVacancy);
@@ -145,6 +319,11 @@ public class ParkingController {
                     @Parameter(in = QUERY, name = "size", description = "Represents all of elements for each page",
                             content = @Content(schema = @Schema(type = "integer", defaultValue = "5"))
                     ),
+                    @Parameter(in = QUERY, name = "count", description = "true runs a count query for the totals, " +
+                            "false leaves them out and only reports hasNext, approx returns a total cached for a short while",
+                            content = @Content(schema = @Schema(type = "string", allowableValues = {"true", "false", "approx"},
+                                    defaultValue = "true"))
+                    ),
                     @Parameter(in = QUERY, name = "sort", description = "Default sort field 'entryDate,asc'. ",
                             array = @ArraySchema(schema = @Schema(type = "string", defaultValue = "entryDate,asc")),
                             hidden = true
@@ -160,12 +339,13 @@ public class ParkingController {
             })
     @GetMapping("/cpf/{cpf}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<PageableDto> getAllParkingsByCpf(@PathVariable String cpf,
-                                                           @Parameter(hidden = true) @PageableDefault(size = 5, sort = "entryDate",
-                                                                   direction = Sort.Direction.ASC) Pageable pageable) {
-        Page<ClientVacancyProjection> projection = clientVacancyService.findAllByClientCpf(cpf, pageable);
-        PageableDto dto = PageableMapper.toDto(projection);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<StreamingResponseBody> getAllParkingsByCpf(@PathVariable String cpf,
+                                                                     @Parameter(hidden = true) @RequestParam(defaultValue = "true") CountMode count,
+                                                                     @Parameter(hidden = true) @PageableDefault(size = 5, sort = "entryDate",
+                                                                             direction = Sort.Direction.ASC) Pageable pageable) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(output -> clientVacancyService.writeAllByClientCpf(cpf, pageable, count, output));
     }
 
     @Operation(summary = "Find logged in clients parking records",
@@ -181,6 +361,11 @@ public class ParkingController {
                             content = @Content(schema = @Schema(type = "integer", defaultValue = "5")),
                             description = "Represents all elements for each page"
                     ),
+                    @Parameter(in = QUERY, name = "count", description = "true runs a count query for the totals, " +
+                            "false leaves them out and only reports hasNext, approx returns a total cached for a short while",
+                            content = @Content(schema = @Schema(type = "string", allowableValues = {"true", "false", "approx"},
+                                    defaultValue = "true"))
+                    ),
                     @Parameter(in = QUERY, name = "sort", hidden = true,
                             array = @ArraySchema(schema = @Schema(type = "string", defaultValue = "entryDate,asc")),
                             description = "Default sort field 'entryDate,asc'. ")
@@ -194,13 +379,94 @@ public class ParkingController {
                                     schema = @Schema(implementation = ErrorMessage.class)))
             })
     @GetMapping
-    @PreAuthorize("hasRole('CLIENT')")
-    public ResponseEntity<PageableDto> getAllParkingClient(@AuthenticationPrincipal JwtUserDetails user,
-                                                           @Parameter(hidden = true) @PageableDefault(
-                                                                   size = 5, sort = "entryDate",
-                                                                   direction = Sort.Direction.ASC) Pageable pageable) {
-        Page<ClientVacancyProjection> projection = clientVacancyService.findAllByUserId(user.getId(), pageable);
-        PageableDto dto = PageableMapper.toDto(projection);
-        return ResponseEntity.ok(dto);
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<StreamingResponseBody> getAllParkingClient(@AuthenticationPrincipal JwtUserDetails user,
+                                                                     @Parameter(hidden = true) @RequestParam(defaultValue = "true") CountMode count,
+                                                                     @Parameter(hidden = true) @PageableDefault(
+                                                                             size = 5, sort = "entryDate",
+                                                                             direction = Sort.Direction.ASC) Pageable pageable) {
+        // The body is written on another thread, the principal is only read here
+        Long userId = user.getId();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(output -> clientVacancyService.writeAllByUserId(userId, pageable, count, output));
+    }
+
+    @Operation(summary = "Find client parking records by CPF with a cursor", description = "Locate the parking register " +
+            "by client cpf, ordered by entry date, one page after the other. Pass the nextCursor of a page to read the " +
+            "following one; every page costs the same however deep it is. Request requires use a bearer token.",
+            security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(in = PATH, name = "cpf", description = "CPF number referring to the client consulted",
+                            required = true),
+                    @Parameter(in = QUERY, name = "cursor", description = "nextCursor of the previous page, first page when omitted"),
+                    @Parameter(in = QUERY, name = "size", description = "Represents all of elements for each page",
+                            content = @Content(schema = @Schema(type = "integer", defaultValue = "5")))
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Resource located successfully",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = CursorPageDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Resource not allowed to Role='CLIENTE'",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping("/cpf/{cpf}/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPageDto> getAllParkingsByCpfCursor(@PathVariable String cpf,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "5") int size) {
+        int pageSize = pageSize(size);
+        List<ClientVacancy> rows = clientVacancyService.findNextByClientCpf(cpf, KeysetCursor.decode(cursor), pageSize);
+        return ResponseEntity.ok(toCursorPage(rows, pageSize));
+    }
+
+    @Operation(summary = "Find logged in clients parking records with a cursor",
+            description = "Find logged in clients parking records, ordered by entry date, one page after the other. " +
+                    "Pass the nextCursor of a page to read the following one. Request requires use a bearer token.",
+            security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(in = QUERY, name = "cursor", description = "nextCursor of the previous page, first page when omitted"),
+                    @Parameter(in = QUERY, name = "size", description = "Represents all elements for each page",
+                            content = @Content(schema = @Schema(type = "integer", defaultValue = "5")))
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Resource located successfully",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = CursorPageDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Resource not allowed to Role='ADMIN'",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<CursorPageDto> getAllParkingClientCursor(@AuthenticationPrincipal JwtUserDetails user,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "5") int size) {
+        int pageSize = pageSize(size);
+        List<ClientVacancy> rows = clientVacancyService.findNextByUserId(user.getId(), KeysetCursor.decode(cursor), pageSize);
+        return ResponseEntity.ok(toCursorPage(rows, pageSize));
+    }
+
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
+    private CursorPageDto toCursorPage(List<ClientVacancy> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<ClientVacancy> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            ClientVacancy last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getEntryDate(), last.getId()).encode();
+        }
+        List<ParkingResponseDto> content = page.stream().map(ClientVacancyMapper::toDto).collect(Collectors.toList());
+        return new CursorPageDto(content, content.size(), hasNext, nextCursor);
     }
-}
\ No newline at end of file
+}
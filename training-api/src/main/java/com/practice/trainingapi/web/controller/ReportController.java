@@ -0,0 +1,84 @@
+package com.practice.trainingapi.web.controller;
+
+import com.practice.trainingapi.entity.RevenueRollup;
+import com.practice.trainingapi.service.RevenueRollupService;
+import com.practice.trainingapi.web.dto.RevenueRollupResponseDto;
+import com.practice.trainingapi.web.dto.exception.ErrorMessage;
+import com.practice.trainingapi.web.dto.mapper.RevenueRollupMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static io.swagger.v3.oas.annotations.enums.ParameterIn.QUERY;
+
+@Tag(name = "Reports", description = "Contains the administrative reports of the parking lot")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/v1/reports")
+public class ReportController {
+
+    private final RevenueRollupService revenueRollupService;
+
+    @Operation(summary = "Revenue report", description = "Resource to return revenue, discounts and sessions per hour or day " +
+            "and zone, read from the precomputed rollups. Request requires use a bearer token. Restrict access to Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(in = QUERY, name = "granularity", description = "HOUR or DAY", required = true),
+                    @Parameter(in = QUERY, name = "from", description = "Start of the range, inclusive (yyyy-MM-ddTHH:mm:ss)", required = true),
+                    @Parameter(in = QUERY, name = "to", description = "End of the range, exclusive (yyyy-MM-ddTHH:mm:ss)", required = true),
+                    @Parameter(in = QUERY, name = "zone", description = "Zone of the lot, all zones when omitted")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Resource located successfully",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    array = @ArraySchema(schema = @Schema(implementation = RevenueRollupResponseDto.class)))),
+                    @ApiResponse(responseCode = "403", description = "Resource not allowed to Role='CLIENTE'",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping("/revenue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RevenueRollupResponseDto>> getRevenue(
+            @RequestParam RevenueRollup.Granularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String zone) {
+        List<RevenueRollup> rollups = revenueRollupService.findAll(granularity, from, to, zone);
+        return ResponseEntity.ok(RevenueRollupMapper.toListDto(rollups));
+    }
+
+    @Operation(summary = "Rebuild revenue rollups", description = "Resource to recompute the revenue rollups of every closed " +
+            "day from the parking history, aggregating chunks of sessions in parallel. The current day is kept as the " +
+            "check-outs recorded it. Only one rebuild runs at a time. " +
+            "Request requires use a bearer token. Restrict access to Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Rollups rebuilt",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = RevenueRollupService.RebuildResult.class))),
+                    @ApiResponse(responseCode = "403", description = "Resource not allowed to Role='CLIENTE'",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "409", description = "A rebuild is already running",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping("/revenue/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RevenueRollupService.RebuildResult> rebuildRevenue() {
+        return ResponseEntity.ok(revenueRollupService.rebuild());
+    }
+}
@@ -0,0 +1,85 @@
+package com.practice.trainingapi.web.controller;
+
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.entity.Reservation;
+import com.practice.trainingapi.jwt.JwtUserDetails;
+import com.practice.trainingapi.service.ClientService;
+import com.practice.trainingapi.service.ReservationService;
+import com.practice.trainingapi.web.dto.ReservationCreateDto;
+import com.practice.trainingapi.web.dto.ReservationResponseDto;
+import com.practice.trainingapi.web.dto.exception.ErrorMessage;
+import com.practice.trainingapi.web.dto.mapper.ReservationMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import static io.swagger.v3.oas.annotations.enums.ParameterIn.PATH;
+
+@Tag(name = "Reservations", description = "Contains all operations related to a spot reservation")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/v1/reservations")
+public class ReservationController {
+
+    private final ReservationService reservationService;
+    private final ClientService clientService;
+
+    @Operation(summary = "Reserve a spot", description = "Resource to hold the nearest free spot of the requested type " +
+            "(STANDARD when omitted) for the authenticated client for a short window. The hold expires automatically; " +
+            "use its code at check-in. Request requires use a bearer token. Restrict access to Role='USER'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Spot reserved",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ReservationResponseDto.class))),
+                    @ApiResponse(responseCode = "404", description = "Possible causes: <br/>" +
+                            "- Client not registered for this user; <br/>" +
+                            "- No free vacancies were found;",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Resource not allowed to Role='ADMIN'",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ReservationResponseDto> reserve(@RequestBody @Valid ReservationCreateDto dto,
+                                                          @AuthenticationPrincipal JwtUserDetails userDetails) {
+        Client client = clientService.findByUserId(userDetails.getId());
+        Reservation reservation = reservationService.reserve(client, ReservationMapper.toPreference(dto));
+        return ResponseEntity.status(201).body(ReservationMapper.toDto(reservation));
+    }
+
+    @Operation(summary = "Cancel a reservation", description = "Resource to release a spot held by the authenticated client. " +
+            "Request requires use a bearer token. Restrict access to Role='USER'",
+            security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(in = PATH, name = "code", description = "Reservation code", required = true)
+            },
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Reservation cancelled"),
+                    @ApiResponse(responseCode = "404", description = "Reservation not found or no longer active",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Resource not allowed to Role='ADMIN'",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @DeleteMapping("/{code}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Void> cancel(@PathVariable String code, @AuthenticationPrincipal JwtUserDetails userDetails) {
+        Client client = clientService.findByUserId(userDetails.getId());
+        reservationService.cancel(code, client.getCpf());
+        return ResponseEntity.noContent().build();
+    }
+}
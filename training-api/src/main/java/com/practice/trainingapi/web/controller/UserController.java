@@ -64,7 +64,7 @@ public class UserController {
     @PostMapping("/create")
     public ResponseEntity<UserResponseDTO> insert(@Valid @RequestBody UserCreateDTO userCreateDto) {
         User newUser = userService.insert(UserMapper.toUser(userCreateDto));
-        return ResponseEntity.status(HttpStatus.FOUND).body(UserMapper.toDto(newUser));
+        return ResponseEntity.status(HttpStatus.CREATED).body(UserMapper.toDto(newUser));
     }
 
     @Operation(summary = "Update password", description = "Resource to update password",
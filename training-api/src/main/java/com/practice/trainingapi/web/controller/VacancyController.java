@@ -1,27 +1,46 @@
 package com.practice.trainingapi.web.controller;
 
 import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.service.OccupancyService;
+import com.practice.trainingapi.service.VacancyBatchResult;
+import com.practice.trainingapi.service.VacancyEventPublisher;
 import com.practice.trainingapi.service.VacancyService;
+import com.practice.trainingapi.web.dto.OccupancyResponseDto;
+import com.practice.trainingapi.web.dto.VacancyBatchResponseDto;
 import com.practice.trainingapi.web.dto.VacancyCreateDto;
 import com.practice.trainingapi.web.dto.VacancyResponseDto;
 import com.practice.trainingapi.web.dto.exception.ErrorMessage;
 import com.practice.trainingapi.web.dto.mapper.VacancyMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Tag(name = "Vacancy", description = "Contains all operations related to a vacancy resource")
 @RequiredArgsConstructor
@@ -29,7 +48,12 @@ import java.net.URI;
 @RequestMapping("api/v1/vacacies")
 public class VacancyController {
 
+    private static final int BULK_CHUNK_SIZE = 500;
+
     private final VacancyService vacancyService;
+    private final OccupancyService occupancyService;
+    private final VacancyEventPublisher vacancyEventPublisher;
+    private final Validator validator;
 
     @Operation(summary = "Create a new vacancy", description = "Resource to create a new vacancy." +
             "Request require use a bearer token. Restrict access to Role='ADMIN'",
@@ -60,6 +84,112 @@ public class VacancyController {
         return ResponseEntity.created(location).build();
     };
 
+    @Operation(summary = "Create vacancies in bulk", description = "Resource to provision many vacancies at once, " +
+            "sent as a JSON array or as a CSV upload (Content-Type text/csv, one 'code,status[,zone,level,type,distance]' per line, header optional). " +
+            "Rows are saved in chunks of " + BULK_CHUNK_SIZE + ", each in its own transaction, and each row receives its own result, " +
+            "in the same order as the request. " +
+            "Request require use a bearer token. Restrict access to Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch processed, see the status of each row",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    array = @ArraySchema(schema = @Schema(implementation = VacancyBatchResponseDto.class)))),
+                    @ApiResponse(responseCode = "403", description = "Resource not allowed Role='CLIENTE'",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class))
+                    )
+            })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<VacancyBatchResponseDto>> insertAll(@RequestBody List<VacancyCreateDto> dtos) {
+        List<VacancyBatchResponseDto> responses = new ArrayList<>(dtos.size());
+        for (int from = 0; from < dtos.size(); from += BULK_CHUNK_SIZE) {
+            saveChunk(dtos.subList(from, Math.min(from + BULK_CHUNK_SIZE, dtos.size())), responses);
+        }
+        return ResponseEntity.ok(responses);
+    }
+
+    // Only one chunk of the upload is held at a time, it is saved before the next lines are read
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<VacancyBatchResponseDto>> insertAllCsv(Reader body) throws IOException {
+        List<VacancyBatchResponseDto> responses = new ArrayList<>();
+        List<VacancyCreateDto> chunk = new ArrayList<>(BULK_CHUNK_SIZE);
+        BufferedReader reader = new BufferedReader(body);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            boolean firstRow = responses.isEmpty() && chunk.isEmpty();
+            if (line.isBlank() || (firstRow && line.trim().toLowerCase().startsWith("code,status"))) {
+                continue;
+            }
+            chunk.add(toDto(line.split(",", -1)));
+            if (chunk.size() == BULK_CHUNK_SIZE) {
+                saveChunk(chunk, responses);
+                chunk.clear();
+            }
+        }
+        saveChunk(chunk, responses);
+        return ResponseEntity.ok(responses);
+    }
+
+    private VacancyCreateDto toDto(String[] columns) {
+        VacancyCreateDto dto = new VacancyCreateDto();
+        dto.setCode(column(columns, 0, null));
+        dto.setStatus(column(columns, 1, null));
+        dto.setZone(column(columns, 2, dto.getZone()));
+        dto.setType(column(columns, 4, dto.getType()));
+        dto.setLevel(number(column(columns, 3, "0")));
+        dto.setDistance(number(column(columns, 5, "0")));
+        return dto;
+    }
+
+    private String column(String[] columns, int index, String defaultValue) {
+        return columns.length > index && !columns[index].isBlank() ? columns[index].trim() : defaultValue;
+    }
+
+    // Unparseable numbers become -1 so the row fails validation instead of the whole upload
+    private int number(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    // The chunk's results are appended to responses, indexed from the rows already answered
+    private void saveChunk(List<VacancyCreateDto> dtos, List<VacancyBatchResponseDto> responses) {
+        int offset = responses.size();
+        VacancyBatchResponseDto[] chunk = new VacancyBatchResponseDto[dtos.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            Set<ConstraintViolation<VacancyCreateDto>> violations = validator.validate(dtos.get(i));
+            if (!violations.isEmpty()) {
+                chunk[i] = new VacancyBatchResponseDto(offset + i, HttpStatus.UNPROCESSABLE_ENTITY.value(), null, toMessage(violations));
+                continue;
+            }
+            indexes.add(i);
+            vacancies.add(VacancyMapper.toVacancy(dtos.get(i)));
+        }
+
+        List<VacancyBatchResult> results = vacancyService.saveAll(vacancies);
+        for (int j = 0; j < results.size(); j++) {
+            int i = indexes.get(j);
+            VacancyBatchResult result = results.get(j);
+            chunk[i] = result.isSuccess()
+                    ? new VacancyBatchResponseDto(offset + i, HttpStatus.CREATED.value(), VacancyMapper.toDto(result.getVacancy()), null)
+                    : new VacancyBatchResponseDto(offset + i, HttpStatus.CONFLICT.value(), null, result.getError());
+        }
+        responses.addAll(Arrays.asList(chunk));
+    }
+
+    private String toMessage(Set<ConstraintViolation<VacancyCreateDto>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; ", "Invalid field - ", ""));
+    }
+
     @Operation(summary = "Find vacancy", description = "Resource to return vacancy using your code" +
             "Request require use a bearer token. Restrict access to Role='ADMIN'",
             security = @SecurityRequirement(name = "security"),
@@ -75,10 +205,40 @@ public class VacancyController {
                                     schema = @Schema(implementation = ErrorMessage.class))
                     )
             })
-    @GetMapping
+    @GetMapping("/{code}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<VacancyResponseDto> getByCode(@PathVariable String code) {
         Vacancy vacancy = vacancyService.findByCode(code);
         return ResponseEntity.ok(VacancyMapper.toDto(vacancy));
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Current occupancy", description = "Resource to return how many vacancies are free and busy. " +
+            "Answered from in-memory counters, without querying the database. Request require use a bearer token.",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Success to recover resource",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = OccupancyResponseDto.class)))
+            })
+    @GetMapping("/occupancy")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<OccupancyResponseDto> getOccupancy() {
+        long free = occupancyService.getFree();
+        long busy = occupancyService.getBusy();
+        return ResponseEntity.ok(new OccupancyResponseDto(free + busy, free, busy));
+    }
+
+    @Operation(summary = "Stream vacancy changes", description = "Server-Sent Events stream for signage displays. " +
+            "Sends 'occupancy' events with the current totals and 'vacancies' events with the vacancies that changed " +
+            "status, coalesced per vacancy. Slow clients only receive the latest event. Request require use a bearer token.",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Stream opened",
+                            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE))
+            })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public SseEmitter stream() {
+        return vacancyEventPublisher.subscribe();
+    }
+}
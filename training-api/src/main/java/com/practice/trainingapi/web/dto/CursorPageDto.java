@@ -0,0 +1,24 @@
+package com.practice.trainingapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto {
+
+    private List content = new ArrayList<>();
+    private int size;
+    private boolean hasNext;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+}
@@ -0,0 +1,18 @@
+package com.practice.trainingapi.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyResponseDto {
+
+    private long total;
+    private long free;
+    private long busy;
+
+}
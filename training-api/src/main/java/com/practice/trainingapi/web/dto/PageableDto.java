@@ -1,10 +1,20 @@
 package com.practice.trainingapi.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.List;
 
+// Shape of the list endpoint pages written by PageJsonWriter, kept for the API docs.
+// Totals are left out when the page was read without counting (count=false)
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageableDto {
     private List content = new ArrayList<>();
     private boolean first;
@@ -14,6 +24,7 @@ public class PageableDto {
     private int size;
     @JsonProperty("pageElements")
     private int numberOfElements;
-    private int totalPages;
-    private int totalElements;
+    private boolean hasNext;
+    private Integer totalPages;
+    private Long totalElements;
 }
@@ -27,4 +27,10 @@ public class ParkingCreateDto {
     @Size(min = 11, max = 11)
     @CPF
     private String clientCpf;
+    @Size(max = 10)
+    private String zone;
+    @Pattern(regexp = "STANDARD|EV|DISABLED|MOTORCYCLE")
+    private String spotType;
+    @Size(min = 14, max = 14)
+    private String reservationCode;
 }
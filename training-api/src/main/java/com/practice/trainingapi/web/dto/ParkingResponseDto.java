@@ -28,6 +28,9 @@ public class ParkingResponseDto {
     @JsonFormat(pattern = "yyyy-MM-dd hh:mm:ss")
     private LocalDateTime departureDate;
     private String vacationCode;
+    private String vacancyZone;
+    private Integer vacancyLevel;
+    private String vacancyType;
     private BigDecimal value;
     private BigDecimal discount;
 
@@ -0,0 +1,21 @@
+package com.practice.trainingapi.web.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationCreateDto {
+
+    @Size(max = 10)
+    private String zone;
+    @Pattern(regexp = "STANDARD|EV|DISABLED|MOTORCYCLE")
+    private String spotType;
+
+}
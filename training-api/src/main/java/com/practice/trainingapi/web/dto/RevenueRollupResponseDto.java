@@ -0,0 +1,26 @@
+package com.practice.trainingapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueRollupResponseDto {
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime bucketStart;
+    private String zone;
+    private long sessions;
+    private BigDecimal revenue;
+    private BigDecimal discount;
+    private BigDecimal net;
+
+}
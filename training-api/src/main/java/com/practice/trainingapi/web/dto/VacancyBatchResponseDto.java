@@ -0,0 +1,21 @@
+package com.practice.trainingapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VacancyBatchResponseDto {
+
+    private int index;
+    private int status;
+    private VacancyResponseDto vacancy;
+    private String message;
+
+}
@@ -2,6 +2,7 @@ package com.practice.trainingapi.web.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -20,5 +21,15 @@ public class VacancyCreateDto {
     @NotBlank
     @Pattern(regexp = "FREE|BUSY")
     private String status;
+    @NotBlank
+    @Size(max = 10)
+    private String zone = "A";
+    @PositiveOrZero
+    private int level;
+    @NotBlank
+    @Pattern(regexp = "STANDARD|EV|DISABLED|MOTORCYCLE")
+    private String type = "STANDARD";
+    @PositiveOrZero
+    private int distance;
 
 }
@@ -14,5 +14,9 @@ public class VacancyResponseDto {
     private Long id;
     private String code;
     private String status;
+    private String zone;
+    private int level;
+    private String type;
+    private int distance;
 
 }
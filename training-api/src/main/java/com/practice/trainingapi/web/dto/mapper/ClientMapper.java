@@ -4,17 +4,18 @@ import com.practice.trainingapi.entity.Client;
 import com.practice.trainingapi.web.dto.ClientCreateDto;
 import com.practice.trainingapi.web.dto.ClientResponseDto;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
-import org.springframework.web.reactive.function.client.ClientResponse;
 
 @NoArgsConstructor
 public class ClientMapper {
 
     public static Client toClient(ClientCreateDto dto) {
-        return new ModelMapper().map(dto, Client.class);
+        Client client = new Client();
+        client.setName(dto.getNome());
+        client.setCpf(dto.getCpf());
+        return client;
     }
 
     public static ClientResponseDto toDto(Client client) {
-        return new ModelMapper().map(client, ClientResponseDto.class);
+        return new ClientResponseDto(client.getId(), client.getName(), client.getCpf());
     }
 }
@@ -1,20 +1,54 @@
 package com.practice.trainingapi.web.dto.mapper;
 
+import com.practice.trainingapi.entity.Client;
 import com.practice.trainingapi.entity.ClientVacancy;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.service.VacancyPreference;
 import com.practice.trainingapi.web.dto.ParkingCreateDto;
 import com.practice.trainingapi.web.dto.ParkingResponseDto;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ClientVacancyMapper {
 
+    // Only the client cpf is known at this point, the client itself is resolved by the check-in
     public static ClientVacancy toClientVacancy(ParkingCreateDto dto) {
-        return new ModelMapper().map(dto, ClientVacancy.class);
+        Client client = new Client();
+        client.setCpf(dto.getClientCpf());
+        ClientVacancy clientVacancy = new ClientVacancy();
+        clientVacancy.setPlate(dto.getPlate());
+        clientVacancy.setBrand(dto.getBrand());
+        clientVacancy.setModel(dto.getModel());
+        clientVacancy.setColor(dto.getColor());
+        clientVacancy.setClient(client);
+        return clientVacancy;
+    }
+
+    public static VacancyPreference toPreference(ParkingCreateDto dto) {
+        return VacancyPreference.of(dto.getZone(),
+                dto.getSpotType() == null ? null : Vacancy.SpotType.valueOf(dto.getSpotType()));
     }
 
     public static ParkingResponseDto toDto(ClientVacancy clientVacancy) {
-        return new ModelMapper().map(clientVacancy, ParkingResponseDto.class)
+        ParkingResponseDto dto = new ParkingResponseDto();
+        dto.setPlate(clientVacancy.getPlate());
+        dto.setBrand(clientVacancy.getBrand());
+        dto.setModel(clientVacancy.getModel());
+        dto.setColor(clientVacancy.getColor());
+        dto.setClientCpf(clientVacancy.getClient().getCpf());
+        dto.setReceipt(clientVacancy.getReceipt());
+        dto.setEntryDate(clientVacancy.getEntryDate());
+        dto.setDepartureDate(clientVacancy.getDepartureDate());
+        Vacancy vacancy = clientVacancy.getVacancy();
+        if (vacancy != null) {
+            dto.setVacationCode(vacancy.getCode());
+            dto.setVacancyZone(vacancy.getZone());
+            dto.setVacancyLevel(vacancy.getLevel());
+            dto.setVacancyType(vacancy.getType().name());
+        }
+        dto.setValue(clientVacancy.getValue());
+        dto.setDiscount(clientVacancy.getDiscount());
+        return dto;
     }
 }
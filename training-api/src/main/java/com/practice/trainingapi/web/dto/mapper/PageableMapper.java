@@ -1,15 +0,0 @@
-package com.practice.trainingapi.web.dto.mapper;
-
-import com.practice.trainingapi.web.dto.PageableDto;
-import lombok.AccessLevel;
-import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
-
-@NoArgsConstructor(access = AccessLevel.PRIVATE)
-public class PageableMapper {
-
-    public static PageableDto toDto(Page page) {
-        return new ModelMapper().map(page, PageableDto.class);
-    }
-}
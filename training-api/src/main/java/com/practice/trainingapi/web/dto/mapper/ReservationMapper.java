@@ -0,0 +1,24 @@
+package com.practice.trainingapi.web.dto.mapper;
+
+import com.practice.trainingapi.entity.Reservation;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.service.VacancyPreference;
+import com.practice.trainingapi.web.dto.ReservationCreateDto;
+import com.practice.trainingapi.web.dto.ReservationResponseDto;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ReservationMapper {
+
+    public static VacancyPreference toPreference(ReservationCreateDto dto) {
+        return VacancyPreference.of(dto.getZone(),
+                dto.getSpotType() == null ? null : Vacancy.SpotType.valueOf(dto.getSpotType()));
+    }
+
+    public static ReservationResponseDto toDto(Reservation reservation) {
+        Vacancy vacancy = reservation.getVacancy();
+        return new ReservationResponseDto(reservation.getCode(), reservation.getStatus().name(), vacancy.getCode(),
+                vacancy.getZone(), vacancy.getType().name(), reservation.getCreatedAt(), reservation.getExpiresAt());
+    }
+}
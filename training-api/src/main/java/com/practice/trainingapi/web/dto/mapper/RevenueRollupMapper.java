@@ -0,0 +1,24 @@
+package com.practice.trainingapi.web.dto.mapper;
+
+import com.practice.trainingapi.entity.RevenueRollup;
+import com.practice.trainingapi.util.ParkingUtils;
+import com.practice.trainingapi.web.dto.RevenueRollupResponseDto;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class RevenueRollupMapper {
+
+    public static RevenueRollupResponseDto toDto(RevenueRollup rollup) {
+        return new RevenueRollupResponseDto(rollup.getBucketStart(), rollup.getZone(), rollup.getSessions(),
+                ParkingUtils.toMoney(rollup.getRevenueCents()), ParkingUtils.toMoney(rollup.getDiscountCents()),
+                ParkingUtils.toMoney(rollup.getRevenueCents() - rollup.getDiscountCents()));
+    }
+
+    public static List<RevenueRollupResponseDto> toListDto(List<RevenueRollup> rollups) {
+        return rollups.stream().map(RevenueRollupMapper::toDto).collect(Collectors.toList());
+    }
+}
@@ -3,8 +3,6 @@ package com.practice.trainingapi.web.dto.mapper;
 import com.practice.trainingapi.entity.User;
 import com.practice.trainingapi.web.dto.UserCreateDTO;
 import com.practice.trainingapi.web.dto.UserResponseDTO;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.PropertyMap;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -12,20 +10,15 @@ import java.util.stream.Collectors;
 public class UserMapper {
 
     public static User toUser(UserCreateDTO userCreateDto) {
-        return new ModelMapper().map(userCreateDto, User.class);
+        User user = new User();
+        user.setUsername(userCreateDto.getUsername());
+        user.setPassword(userCreateDto.getPassword());
+        return user;
     }
 
     public static UserResponseDTO toDto(User user) {
         String role = user.getRole().name().substring("ROLE_".length());
-        PropertyMap<User, UserResponseDTO> props = new PropertyMap<User, UserResponseDTO>() {
-            @Override
-            protected void configure() {
-                map().setRole(role);
-            }
-        };
-        ModelMapper mapper = new ModelMapper();
-        mapper.addMappings(props);
-        return mapper.map(user, UserResponseDTO.class);
+        return new UserResponseDTO(user.getId(), user.getUsername(), role);
     }
 
     public static List<UserResponseDTO> toListDto(List<User> users) {
@@ -5,17 +5,24 @@ import com.practice.trainingapi.web.dto.VacancyCreateDto;
 import com.practice.trainingapi.web.dto.VacancyResponseDto;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class VacancyMapper {
 
     public static Vacancy toVacancy(VacancyCreateDto dto) {
-        return new ModelMapper().map(dto, Vacancy.class);
+        Vacancy vacancy = new Vacancy();
+        vacancy.setCode(dto.getCode());
+        vacancy.setStatus(Vacancy.StatusVacancy.valueOf(dto.getStatus()));
+        vacancy.setZone(dto.getZone());
+        vacancy.setLevel(dto.getLevel());
+        vacancy.setType(Vacancy.SpotType.valueOf(dto.getType()));
+        vacancy.setDistance(dto.getDistance());
+        return vacancy;
     }
 
     public static VacancyResponseDto toDto(Vacancy vacancy) {
-        return new ModelMapper().map(vacancy, VacancyResponseDto.class);
+        return new VacancyResponseDto(vacancy.getId(), vacancy.getCode(), vacancy.getStatus().name(), vacancy.getZone(),
+                vacancy.getLevel(), vacancy.getType().name(), vacancy.getDistance());
     }
 
 }
@@ -0,0 +1,102 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.repository.ClientRepository;
+import com.practice.trainingapi.repository.ClientVacancyArchiveRepository;
+import com.practice.trainingapi.service.ClientVisitsReconciler;
+import com.practice.trainingapi.service.ParkingArchiveService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// The archive move and the visit count are stubbed, the lock between them is the real one
+public class ClientVisitsReconcilerTest {
+
+    private ClientRepository clientRepository;
+    private ClientVacancyArchiveRepository archiveRepository;
+    private ParkingArchiveService parkingArchiveService;
+    private ClientVisitsReconciler reconciler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        clientRepository = Mockito.mock(ClientRepository.class);
+        archiveRepository = Mockito.mock(ClientVacancyArchiveRepository.class);
+        TransactionTemplate transactionTemplate = Mockito.mock(TransactionTemplate.class);
+        Mockito.when(transactionTemplate.execute(Mockito.any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        EntityManagerFactory entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+        Mockito.when(entityManagerFactory.getCache()).thenReturn(Mockito.mock(Cache.class));
+
+        parkingArchiveService = new ParkingArchiveService(archiveRepository, Mockito.mock(JdbcTemplate.class),
+                transactionTemplate, 6, 500, 0);
+        reconciler = new ClientVisitsReconciler(clientRepository, archiveRepository, parkingArchiveService,
+                transactionTemplate, entityManagerFactory);
+
+        Mockito.when(clientRepository.findMinId()).thenReturn(1L);
+        Mockito.when(clientRepository.findMaxId()).thenReturn(1L);
+        Mockito.when(archiveRepository.findArchivableIds(Mockito.anyLong(), Mockito.any(), Mockito.anyInt()))
+                .thenReturn(List.of(7L), List.of());
+        Mockito.when(archiveRepository.findMaxArchiveMonth(List.of(7L))).thenReturn(202401);
+    }
+
+    @Test
+    public void reconcile_WhileAChunkIsMoving_WaitsForTheMoveToCommit() throws Exception {
+        CountDownLatch moving = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        Mockito.when(archiveRepository.moveToArchive(List.of(7L))).thenAnswer(invocation -> {
+            moving.countDown();
+            proceed.await();
+            return 1;
+        });
+        CompletableFuture<Long> archive = CompletableFuture.supplyAsync(() -> parkingArchiveService.archive(LocalDateTime.now()));
+        Assertions.assertThat(moving.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(reconciler::reconcile);
+        Assertions.assertThatThrownBy(() -> reconcile.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        Mockito.verify(clientRepository, Mockito.never()).reconcileCompletedVisits(Mockito.anyLong(), Mockito.anyLong());
+
+        proceed.countDown();
+        Assertions.assertThat(archive.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        reconcile.get(5, TimeUnit.SECONDS);
+
+        Mockito.verify(clientRepository).reconcileCompletedVisits(1L, 500L);
+        Mockito.verify(archiveRepository).addCompletedVisits(1L, 500L);
+    }
+
+    @Test
+    public void archive_WhileAChunkIsReconciling_WaitsForBothCounts() throws Exception {
+        CountDownLatch counting = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        Mockito.when(clientRepository.reconcileCompletedVisits(1L, 500L)).thenAnswer(invocation -> {
+            counting.countDown();
+            proceed.await();
+            return 1;
+        });
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(reconciler::reconcile);
+        Assertions.assertThat(counting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Long> archive = CompletableFuture.supplyAsync(() -> parkingArchiveService.archive(LocalDateTime.now()));
+        Assertions.assertThatThrownBy(() -> archive.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        Mockito.verify(archiveRepository, Mockito.never()).moveToArchive(Mockito.any());
+
+        proceed.countDown();
+        reconcile.get(5, TimeUnit.SECONDS);
+        archive.get(5, TimeUnit.SECONDS);
+
+        Mockito.verify(archiveRepository).addCompletedVisits(1L, 500L);
+        Mockito.verify(archiveRepository).moveToArchive(List.of(7L));
+    }
+}
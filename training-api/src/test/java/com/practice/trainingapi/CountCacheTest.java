@@ -0,0 +1,44 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.service.CountCache;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CountCacheTest {
+
+    @Test
+    public void get_WithinTtl_CountsOnce() {
+        CountCache cache = new CountCache(60_000, 10);
+        AtomicInteger queries = new AtomicInteger();
+
+        cache.get("clients", () -> queries.incrementAndGet() * 10L);
+        long total = cache.get("clients", () -> queries.incrementAndGet() * 10L);
+
+        Assertions.assertThat(total).isEqualTo(10);
+        Assertions.assertThat(queries).hasValue(1);
+    }
+
+    @Test
+    public void get_WhenFull_CountsWithoutGrowing() {
+        CountCache cache = new CountCache(60_000, 2);
+        AtomicInteger queries = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            cache.get("parkings:cpf:" + i, () -> queries.incrementAndGet() * 10L);
+        }
+        long total = cache.get("parkings:cpf:4", () -> queries.incrementAndGet() * 10L);
+
+        Assertions.assertThat(total).isEqualTo(60);
+        Assertions.assertThat(queries).hasValue(6);
+        Assertions.assertThat(cache.get("parkings:cpf:0", () -> -1L)).isEqualTo(10);
+    }
+
+    @Test
+    public void clamp_WithStaleTotal_KeepsPageNavigation() {
+        Assertions.assertThat(CountCache.clamp(4, 6, 2, true)).isEqualTo(9);
+        Assertions.assertThat(CountCache.clamp(50, 2, 1, false)).isEqualTo(3);
+        Assertions.assertThat(CountCache.clamp(7, 10, 0, false)).isEqualTo(7);
+    }
+}
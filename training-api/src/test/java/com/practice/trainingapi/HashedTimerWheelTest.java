@@ -0,0 +1,45 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.util.HashedTimerWheel;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class HashedTimerWheelTest {
+
+    @Test
+    public void advance_WithDeadlinesAcrossRevolutions_ExpiresEachTimeoutOnItsTick() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(100, 8, 0);
+        wheel.schedule("near", 250);
+        wheel.schedule("far", 250 + 8 * 100);
+        wheel.schedule("cancelled", 300);
+        wheel.cancel("cancelled");
+
+        Assertions.assertThat(wheel.advance(200)).isEmpty();
+        Assertions.assertThat(wheel.advance(300)).containsExactly("near");
+        Assertions.assertThat(wheel.advance(1000)).isEmpty();
+        Assertions.assertThat(wheel.advance(1100)).containsExactly("far");
+        Assertions.assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    public void advance_AfterLongPause_ExpiresEveryOverdueTimeout() {
+        HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>(100, 8, 0);
+        for (int i = 0; i < 20; i++) {
+            wheel.schedule(i, 100 + i * 150L);
+        }
+        wheel.schedule(99, 50);
+
+        Assertions.assertThat(wheel.advance(10_000)).hasSize(21);
+        Assertions.assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    public void schedule_WithSameKey_ReplacesPreviousDeadline() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(100, 8, 0);
+        wheel.schedule("hold", 200);
+        wheel.schedule("hold", 600);
+
+        Assertions.assertThat(wheel.advance(500)).isEmpty();
+        Assertions.assertThat(wheel.advance(600)).containsExactly("hold");
+    }
+}
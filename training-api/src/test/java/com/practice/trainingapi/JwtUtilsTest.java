@@ -0,0 +1,38 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.jwt.JwtUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class JwtUtilsTest {
+
+    @Test
+    public void verify_WithSameTokenTwice_HitsVerifiedCache() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtUtils.bindMetrics(registry);
+        String token = JwtUtils.JWT_BEARER + JwtUtils.createToken("jwt@email.com", "ADMIN").getToken();
+        double hits = hits(registry);
+
+        Assertions.assertThat(JwtUtils.verify(token).getSubject()).isEqualTo("jwt@email.com");
+        Assertions.assertThat(JwtUtils.verify(token).get("role")).isEqualTo("ADMIN");
+
+        Assertions.assertThat(hits(registry) - hits).isEqualTo(1);
+    }
+
+    @Test
+    public void verify_WithTamperedTokenOfCachedOne_RejectsIt() {
+        String token = JwtUtils.createToken("jwt@email.com", "USER").getToken();
+        JwtUtils.verify(token);
+        String payload = token.split("\\.")[1];
+        String tampered = token.replace(payload, payload.substring(0, payload.length() - 2) + "xx");
+
+        Assertions.assertThat(JwtUtils.isTokenValid(token)).isTrue();
+        Assertions.assertThat(JwtUtils.isTokenValid(tampered)).isFalse();
+        Assertions.assertThat(JwtUtils.isTokenValid(token + "x")).isFalse();
+    }
+
+    private static double hits(SimpleMeterRegistry registry) {
+        return registry.get("jwt.verified.cache.requests").tag("result", "hit").functionCounter().count();
+    }
+}
@@ -0,0 +1,108 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.entity.ClientVacancy;
+import com.practice.trainingapi.entity.Reservation;
+import com.practice.trainingapi.entity.User;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.web.dto.ClientCreateDto;
+import com.practice.trainingapi.web.dto.ParkingCreateDto;
+import com.practice.trainingapi.web.dto.ParkingResponseDto;
+import com.practice.trainingapi.web.dto.UserCreateDTO;
+import com.practice.trainingapi.web.dto.VacancyCreateDto;
+import com.practice.trainingapi.web.dto.mapper.ClientMapper;
+import com.practice.trainingapi.web.dto.mapper.ClientVacancyMapper;
+import com.practice.trainingapi.web.dto.mapper.ReservationMapper;
+import com.practice.trainingapi.web.dto.mapper.UserMapper;
+import com.practice.trainingapi.web.dto.mapper.VacancyMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Every response DTO field must be filled from a fully populated source, so a field added to a DTO
+// without its mapping line fails here
+public class MapperTest {
+
+    private static final LocalDateTime ENTRY = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    @Test
+    public void toDto_WithPopulatedSources_MapsEveryResponseField() {
+        Vacancy vacancy = vacancy();
+        Client client = client();
+        ClientVacancy clientVacancy = new ClientVacancy();
+        clientVacancy.setPlate("ABC-1234");
+        clientVacancy.setBrand("FIAT");
+        clientVacancy.setModel("PALIO");
+        clientVacancy.setColor("BLUE");
+        clientVacancy.setReceipt("20240301-080000");
+        clientVacancy.setEntryDate(ENTRY);
+        clientVacancy.setDepartureDate(ENTRY.plusHours(2));
+        clientVacancy.setValue(new BigDecimal("16.25"));
+        clientVacancy.setDiscount(new BigDecimal("1.62"));
+        clientVacancy.setClient(client);
+        clientVacancy.setVacancy(vacancy);
+
+        Reservation reservation = new Reservation();
+        reservation.setCode("20240301-080001");
+        reservation.setClient(client);
+        reservation.setVacancy(vacancy);
+        reservation.setCreatedAt(ENTRY);
+        reservation.setExpiresAt(ENTRY.plusMinutes(15));
+
+        User user = new User();
+        user.setId(3L);
+        user.setUsername("mapper@email.com");
+        user.setPassword("123456");
+        user.setRole(User.Role.ROLE_ADMIN);
+
+        ParkingResponseDto parking = ClientVacancyMapper.toDto(clientVacancy);
+        Assertions.assertThat(parking).hasNoNullFieldsOrProperties();
+        Assertions.assertThat(parking.getVacationCode()).isEqualTo("V001");
+        Assertions.assertThat(parking.getVacancyType()).isEqualTo("EV");
+        Assertions.assertThat(ClientMapper.toDto(client)).hasNoNullFieldsOrProperties();
+        Assertions.assertThat(VacancyMapper.toDto(vacancy)).hasNoNullFieldsOrProperties()
+                .extracting("level", "distance").containsExactly(2, 40);
+        Assertions.assertThat(ReservationMapper.toDto(reservation)).hasNoNullFieldsOrProperties();
+        Assertions.assertThat(UserMapper.toDto(user)).hasNoNullFieldsOrProperties()
+                .extracting("role").isEqualTo("ADMIN");
+    }
+
+    @Test
+    public void toEntity_WithCreateDtos_CopiesEveryRequestField() {
+        ParkingCreateDto parking = ParkingCreateDto.builder().plate("ABC-1234").brand("FIAT").model("PALIO")
+                .color("BLUE").clientCpf("53280465081").zone("B").spotType("EV").build();
+
+        Assertions.assertThat(ClientVacancyMapper.toClientVacancy(parking))
+                .extracting("plate", "brand", "model", "color", "client.cpf")
+                .containsExactly("ABC-1234", "FIAT", "PALIO", "BLUE", "53280465081");
+        Assertions.assertThat(ClientMapper.toClient(new ClientCreateDto("Mapper Client", "53280465081")))
+                .extracting("name", "cpf").containsExactly("Mapper Client", "53280465081");
+        Assertions.assertThat(VacancyMapper.toVacancy(new VacancyCreateDto("V002", "FREE", "B", 1, "EV", 12)))
+                .extracting("code", "status", "zone", "level", "type", "distance")
+                .containsExactly("V002", Vacancy.StatusVacancy.FREE, "B", 1, Vacancy.SpotType.EV, 12);
+        Assertions.assertThat(UserMapper.toUser(new UserCreateDTO("mapper@email.com", "123456")))
+                .extracting("username", "password").containsExactly("mapper@email.com", "123456");
+    }
+
+    private static Vacancy vacancy() {
+        Vacancy vacancy = new Vacancy();
+        vacancy.setId(1L);
+        vacancy.setCode("V001");
+        vacancy.setStatus(Vacancy.StatusVacancy.BUSY);
+        vacancy.setZone("B");
+        vacancy.setLevel(2);
+        vacancy.setType(Vacancy.SpotType.EV);
+        vacancy.setDistance(40);
+        return vacancy;
+    }
+
+    private static Client client() {
+        Client client = new Client();
+        client.setId(2L);
+        client.setName("Mapper Client");
+        client.setCpf("53280465081");
+        return client;
+    }
+}
@@ -0,0 +1,134 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.service.OccupancyService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.practice.trainingapi.entity.Vacancy.StatusVacancy.BUSY;
+import static com.practice.trainingapi.entity.Vacancy.StatusVacancy.FREE;
+
+// The transactions are driven by hand through TransactionSynchronizationManager, so each test can stop one between
+// its commit and the delta it applies afterwards
+public class OccupancyServiceTest {
+
+    private VacancyRepository vacancyRepository;
+    private OccupancyService occupancyService;
+    private final AtomicLong busyInDatabase = new AtomicLong();
+
+    @BeforeEach
+    public void setUp() {
+        vacancyRepository = Mockito.mock(VacancyRepository.class);
+        Mockito.when(vacancyRepository.countByStatus()).thenAnswer(invocation -> counts());
+        occupancyService = new OccupancyService(vacancyRepository);
+        occupancyService.reconcile();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void occupiedAndReleased_AfterCommit_MoveTheTotals() {
+        inTransaction(() -> occupancyService.occupied(2), TransactionSynchronization.STATUS_COMMITTED);
+        inTransaction(() -> occupancyService.released(1), TransactionSynchronization.STATUS_COMMITTED);
+        inTransaction(() -> occupancyService.occupied(3), TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        Assertions.assertThat(occupancyService.getFree()).isEqualTo(9);
+        Assertions.assertThat(occupancyService.getBusy()).isEqualTo(1);
+    }
+
+    @Test
+    public void reconcile_WhileACheckInIsCommitting_WaitsForItsDelta() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        occupancyService.occupied(1);
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        busyInDatabase.incrementAndGet();
+
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(occupancyService::reconcile);
+        Assertions.assertThatThrownBy(() -> reconcile.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        reconcile.get(5, TimeUnit.SECONDS);
+
+        Assertions.assertThat(occupancyService.getFree()).isEqualTo(9);
+        Assertions.assertThat(occupancyService.getBusy()).isEqualTo(1);
+    }
+
+    @Test
+    public void commit_WhileReconcileIsCounting_AppliesItsDeltaAfterTheRecount() throws Exception {
+        CountDownLatch counting = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        Mockito.when(vacancyRepository.countByStatus()).thenAnswer(invocation -> {
+            List<Object[]> counts = counts();
+            counting.countDown();
+            proceed.await();
+            return counts;
+        });
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(occupancyService::reconcile);
+        Assertions.assertThat(counting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> checkIn = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            occupancyService.occupied(1);
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            busyInDatabase.incrementAndGet();
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        });
+        Assertions.assertThatThrownBy(() -> checkIn.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        proceed.countDown();
+        reconcile.get(5, TimeUnit.SECONDS);
+        checkIn.get(5, TimeUnit.SECONDS);
+
+        Assertions.assertThat(occupancyService.getFree()).isEqualTo(9);
+        Assertions.assertThat(occupancyService.getBusy()).isEqualTo(1);
+    }
+
+    @Test
+    public void reconcile_WithDrift_ResetsTheTotalsToTheDatabase() {
+        occupancyService.vacancyCreated(FREE);
+        occupancyService.vacanciesCreated(0, 2);
+
+        occupancyService.reconcile();
+
+        Assertions.assertThat(occupancyService.getFree()).isEqualTo(10);
+        Assertions.assertThat(occupancyService.getBusy()).isZero();
+    }
+
+    private List<Object[]> counts() {
+        long busy = busyInDatabase.get();
+        return List.of(new Object[]{FREE, 10 - busy}, new Object[]{BUSY, busy});
+    }
+
+    private void inTransaction(Runnable work, int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        work.run();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        }
+        complete(status);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+}
@@ -0,0 +1,186 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.entity.ClientVacancy;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.exception.EntityNotFoundException;
+import com.practice.trainingapi.repository.ClientVacancyArchiveRepository;
+import com.practice.trainingapi.repository.ClientVacancyRepository;
+import com.practice.trainingapi.repository.projection.OpenSession;
+import com.practice.trainingapi.service.ClientVacancyService;
+import com.practice.trainingapi.service.CountCache;
+import com.practice.trainingapi.service.OpenSessionIndex;
+import com.practice.trainingapi.service.PageJsonWriter;
+import com.practice.trainingapi.service.ParkingArchiveService;
+import com.practice.trainingapi.util.ReceiptGenerator;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public class OpenSessionIndexTest {
+
+    private static final LocalDateTime ENTRY = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    private ClientVacancyRepository clientVacancyRepository;
+
+    @BeforeEach
+    public void setUp() {
+        clientVacancyRepository = Mockito.mock(ClientVacancyRepository.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void load_WithOpenSessions_IndexesThemByReceiptAndPlate() {
+        Mockito.when(clientVacancyRepository.findAllOpenSessions()).thenReturn(List.of(
+                new OpenSession("R1", 1L, 10L, ENTRY, "ABC-1234"),
+                new OpenSession("R2", 2L, 20L, ENTRY, "DEF-5678")));
+        OpenSessionIndex index = new OpenSessionIndex(clientVacancyRepository, false);
+
+        index.load();
+
+        Assertions.assertThat(index.size()).isEqualTo(2);
+        Assertions.assertThat(index.find("R1")).get().extracting(OpenSession::getVacancyId).isEqualTo(10L);
+        Assertions.assertThat(index.findByPlate("DEF-5678")).get().extracting(OpenSession::getReceipt).isEqualTo("R2");
+    }
+
+    @Test
+    public void opened_OnCommit_AddsTheSessionAndOnRollback_DoesNot() {
+        OpenSessionIndex index = new OpenSessionIndex(clientVacancyRepository, false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.opened(session(1L, "R1", "ABC-1234"));
+        Assertions.assertThat(index.find("R1")).isEmpty();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.opened(session(2L, "R2", "DEF-5678"));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        Assertions.assertThat(index.find("R1")).get().extracting(OpenSession::getId).isEqualTo(1L);
+        Assertions.assertThat(index.findByPlate("ABC-1234")).isPresent();
+        Assertions.assertThat(index.find("R2")).isEmpty();
+        Assertions.assertThat(index.findByPlate("DEF-5678")).isEmpty();
+    }
+
+    @Test
+    public void closed_OnCommit_RemovesTheSessionAndOnRollback_KeepsIt() {
+        OpenSessionIndex index = new OpenSessionIndex(clientVacancyRepository, false);
+        ClientVacancy session = session(1L, "R1", "ABC-1234");
+        index.opened(session);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.closed(session);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        Assertions.assertThat(index.find("R1")).isPresent();
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.closed(session);
+        Assertions.assertThat(index.find("R1")).isPresent();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        Assertions.assertThat(index.find("R1")).isEmpty();
+        Assertions.assertThat(index.findByPlate("ABC-1234")).isEmpty();
+        Assertions.assertThat(index.size()).isZero();
+    }
+
+    @Test
+    public void closed_ForAnOlderSessionOfThePlate_KeepsTheNewerOne() {
+        OpenSessionIndex index = new OpenSessionIndex(clientVacancyRepository, false);
+        ClientVacancy older = session(1L, "R1", "ABC-1234");
+        index.opened(older);
+        index.opened(session(2L, "R2", "ABC-1234"));
+
+        index.closed(older);
+
+        Assertions.assertThat(index.findByPlate("ABC-1234")).get().extracting(OpenSession::getReceipt).isEqualTo("R2");
+    }
+
+    @Test
+    public void findByPlate_WithAnyCaseOrSeparator_FindsTheNormalizedPlate() {
+        OpenSessionIndex index = new OpenSessionIndex(clientVacancyRepository, false);
+        ClientVacancy session = session(1L, "R1", "abc1234");
+        index.opened(session);
+
+        Assertions.assertThat(index.findByPlate("ABC-1234")).isPresent();
+        Assertions.assertThat(index.findByPlate("abc-1234")).isPresent();
+        Assertions.assertThat(index.findByPlate(" abc 1234 ")).isPresent();
+        Assertions.assertThat(index.findByPlate("ABC-1235")).isEmpty();
+
+        index.closed(session(1L, "R1", "ABC-1234"));
+        Assertions.assertThat(index.findByPlate("abc1234")).isEmpty();
+    }
+
+    @Test
+    public void findByReceipt_WhenAuthoritativeAndMissing_DoesNotQueryTheDatabase() {
+        ClientVacancyService service = service(new OpenSessionIndex(clientVacancyRepository, true));
+
+        Assertions.assertThatThrownBy(() -> service.findByReceipt("R1")).isInstanceOf(EntityNotFoundException.class);
+        Assertions.assertThat(service.findAllByReceipt(List.of("R1"))).isEmpty();
+
+        Mockito.verify(clientVacancyRepository, Mockito.never()).findByReceiptAndDepartureDateIsNull(Mockito.any());
+        Mockito.verify(clientVacancyRepository, Mockito.never()).findAllByReceiptInAndDepartureDateIsNull(Mockito.any());
+    }
+
+    @Test
+    public void findByReceipt_WhenNotAuthoritativeAndMissing_FallsBackToTheDatabase() {
+        ClientVacancy opened = session(1L, "R1", "ABC-1234");
+        Mockito.when(clientVacancyRepository.findByReceiptAndDepartureDateIsNull("R1")).thenReturn(Optional.of(opened));
+        Mockito.when(clientVacancyRepository.findAllByReceiptInAndDepartureDateIsNull(List.of("R1"))).thenReturn(List.of(opened));
+        ClientVacancyService service = service(new OpenSessionIndex(clientVacancyRepository, false));
+
+        Assertions.assertThat(service.findByReceipt("R1")).isSameAs(opened);
+        Assertions.assertThat(service.findAllByReceipt(List.of("R1"))).containsExactly(opened);
+    }
+
+    @Test
+    public void findByReceipt_WhenIndexed_LoadsTheSessionById() {
+        ClientVacancy opened = session(1L, "R1", "ABC-1234");
+        Mockito.when(clientVacancyRepository.findById(1L)).thenReturn(Optional.of(opened));
+        OpenSessionIndex index = new OpenSessionIndex(clientVacancyRepository, true);
+        index.opened(opened);
+
+        Assertions.assertThat(service(index).findByReceipt("R1")).isSameAs(opened);
+        Mockito.verify(clientVacancyRepository, Mockito.never()).findByReceiptAndDepartureDateIsNull(Mockito.any());
+    }
+
+    private ClientVacancyService service(OpenSessionIndex index) {
+        return new ClientVacancyService(clientVacancyRepository, index, Mockito.mock(CountCache.class),
+                Mockito.mock(PageJsonWriter.class), Mockito.mock(ClientVacancyArchiveRepository.class),
+                Mockito.mock(ParkingArchiveService.class), Mockito.mock(ReceiptGenerator.class));
+    }
+
+    private static ClientVacancy session(Long id, String receipt, String plate) {
+        Vacancy vacancy = new Vacancy();
+        vacancy.setId(id * 10);
+        ClientVacancy clientVacancy = new ClientVacancy();
+        clientVacancy.setId(id);
+        clientVacancy.setReceipt(receipt);
+        clientVacancy.setPlate(plate);
+        clientVacancy.setEntryDate(ENTRY);
+        clientVacancy.setVacancy(vacancy);
+        return clientVacancy;
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        }
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+}
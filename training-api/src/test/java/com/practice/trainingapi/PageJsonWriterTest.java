@@ -0,0 +1,67 @@
+package com.practice.trainingapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.trainingapi.service.PageJsonWriter;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class PageJsonWriterTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 3);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PageJsonWriter pageJsonWriter = new PageJsonWriter(objectMapper);
+
+    @Test
+    public void write_WithARowPastThePage_WritesThePageAndItsMetadata() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        pageJsonWriter.write(rows(4), FIRST_PAGE, () -> 10, output);
+
+        JsonNode page = objectMapper.readTree(output.toByteArray());
+        Assertions.assertThat(page.get("content")).extracting(row -> row.get("id").asInt()).containsExactly(0, 1, 2);
+        Assertions.assertThat(page.get("hasNext").asBoolean()).isTrue();
+        Assertions.assertThat(page.get("last").asBoolean()).isFalse();
+        Assertions.assertThat(page.get("totalElements").asLong()).isEqualTo(10);
+        Assertions.assertThat(page.get("totalPages").asInt()).isEqualTo(4);
+    }
+
+    @Test
+    public void write_WhenTheQueryFailsMidPage_WritesNothing() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Stream<Map<String, Integer>> failing = rows(2).map(row -> {
+            if (row.get("id") == 1) {
+                throw new DataAccessResourceFailureException("connection lost");
+            }
+            return row;
+        });
+
+        Assertions.assertThatThrownBy(() -> pageJsonWriter.write(failing, FIRST_PAGE, null, output))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        Assertions.assertThat(output.size()).isZero();
+    }
+
+    @Test
+    public void write_WhenTheCountFails_WritesNothing() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        Assertions.assertThatThrownBy(() -> pageJsonWriter.write(rows(2), FIRST_PAGE, () -> {
+                    throw new DataAccessResourceFailureException("connection lost");
+                }, output))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        Assertions.assertThat(output.size()).isZero();
+    }
+
+    private static Stream<Map<String, Integer>> rows(int count) {
+        return IntStream.range(0, count).mapToObj(id -> Map.of("id", id));
+    }
+}
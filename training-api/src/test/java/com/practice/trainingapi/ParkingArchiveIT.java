@@ -0,0 +1,249 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.entity.ClientVacancy;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.exception.EntityNotFoundException;
+import com.practice.trainingapi.repository.ClientRepository;
+import com.practice.trainingapi.repository.ClientVacancyArchiveRepository;
+import com.practice.trainingapi.repository.ClientVacancyRepository;
+import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.service.ClientVacancyService;
+import com.practice.trainingapi.service.CountCache;
+import com.practice.trainingapi.service.CountMode;
+import com.practice.trainingapi.service.OpenSessionIndex;
+import com.practice.trainingapi.service.PageJsonWriter;
+import com.practice.trainingapi.service.ParkingArchiveService;
+import com.practice.trainingapi.service.ParkingExportService;
+import com.practice.trainingapi.util.KeysetCursor;
+import com.practice.trainingapi.util.SequenceReceiptGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:parking-archive;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "parking.archive.batch-size=2",
+        "parking.archive.pause-ms=0"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ClientVacancyArchiveRepository.class, ParkingArchiveService.class, ParkingExportService.class,
+        ClientVacancyService.class, OpenSessionIndex.class, CountCache.class, PageJsonWriter.class,
+        SequenceReceiptGenerator.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ParkingArchiveIT {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    ClientRepository clientRepository;
+    @Autowired
+    VacancyRepository vacancyRepository;
+    @Autowired
+    ClientVacancyRepository clientVacancyRepository;
+    @Autowired
+    ParkingArchiveService parkingArchiveService;
+    @Autowired
+    ParkingExportService parkingExportService;
+    @Autowired
+    ClientVacancyService clientVacancyService;
+    @Autowired
+    SequenceReceiptGenerator receiptGenerator;
+    @SpyBean
+    ClientVacancyArchiveRepository archiveRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    Client client;
+    Vacancy vacancy;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("delete from " + ClientVacancyArchiveRepository.TABLE);
+        clientVacancyRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+        vacancyRepository.deleteAllInBatch();
+
+        client = new Client();
+        client.setName("Archive Client");
+        client.setCpf("53280465081");
+        clientRepository.save(client);
+
+        vacancy = new Vacancy();
+        vacancy.setCode("R001");
+        vacancy.setStatus(Vacancy.StatusVacancy.BUSY);
+        vacancyRepository.save(vacancy);
+
+        clientVacancyRepository.saveAll(List.of(
+                session("OLD-1", client, vacancy, LocalDateTime.of(2023, 1, 10, 8, 0), true),
+                session("OLD-2", client, vacancy, LocalDateTime.of(2023, 2, 10, 8, 0), true),
+                session("OLD-OPEN", client, vacancy, LocalDateTime.of(2023, 2, 20, 8, 0), false),
+                session("OLD-3", client, vacancy, LocalDateTime.of(2023, 3, 10, 8, 0), true),
+                session("RECENT", client, vacancy, LocalDateTime.of(2024, 2, 10, 8, 0), true)));
+    }
+
+    @Test
+    public void archive_WithOldClosedSessions_MovesThemAndKeepsOpenAndRecentOnesHot() {
+        long moved = parkingArchiveService.archive(CUTOFF);
+
+        Assertions.assertThat(moved).isEqualTo(3);
+        Assertions.assertThat(clientVacancyRepository.findAll()).extracting(ClientVacancy::getReceipt)
+                .containsExactlyInAnyOrder("OLD-OPEN", "RECENT");
+        Assertions.assertThat(jdbcTemplate.queryForList("select archive_month from " + ClientVacancyArchiveRepository.TABLE
+                + " order by archive_month", Integer.class)).containsExactly(202301, 202302, 202303);
+        Assertions.assertThat(parkingArchiveService.getArchivedThrough()).contains(LocalDateTime.of(2023, 3, 10, 8, 0));
+        Assertions.assertThat(parkingArchiveService.archive(CUTOFF)).isZero();
+    }
+
+    @Test
+    public void export_WithRangeReachingTheArchive_ReadsBothTablesInEntryOrder() throws IOException {
+        parkingArchiveService.archive(CUTOFF);
+
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        parkingExportService.export(ParkingExportService.Format.CSV, LocalDateTime.of(2023, 2, 1, 0, 0),
+                LocalDateTime.of(2025, 1, 1, 0, 0), null, all);
+        ByteArrayOutputStream hot = new ByteArrayOutputStream();
+        parkingExportService.export(ParkingExportService.Format.CSV, LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 1, 1, 0, 0), null, hot);
+
+        Assertions.assertThat(receipts(all)).containsExactly("OLD-2", "OLD-OPEN", "OLD-3", "RECENT");
+        Assertions.assertThat(receipts(hot)).containsExactly("RECENT");
+    }
+
+    @Test
+    public void writeAllByClientCpf_WithArchivedSessions_PagesOverBothTables() throws IOException {
+        parkingArchiveService.archive(CUTOFF);
+
+        JsonNode first = page(PageRequest.of(0, 3, Sort.by("entryDate")));
+        JsonNode second = page(PageRequest.of(1, 3, Sort.by("entryDate")));
+
+        Assertions.assertThat(first.get("content")).extracting(row -> row.get("receipt").asText())
+                .containsExactly("OLD-1", "OLD-2", "OLD-OPEN");
+        Assertions.assertThat(first.get("content").get(0).get("vacancyCode").asText()).isEqualTo("R001");
+        Assertions.assertThat(first.get("content").get(0).get("entryDate").asText()).isEqualTo("2023-01-10 08:00:00");
+        Assertions.assertThat(first.get("totalElements").asLong()).isEqualTo(5);
+        Assertions.assertThat(second.get("content")).extracting(row -> row.get("receipt").asText())
+                .containsExactly("OLD-3", "RECENT");
+        Assertions.assertThat(second.get("hasNext").asBoolean()).isFalse();
+    }
+
+    @Test
+    public void findNextByClientCpf_WithCursorBeforeArchivedThrough_ReadsBothTables() {
+        parkingArchiveService.archive(CUTOFF);
+
+        List<ClientVacancy> first = clientVacancyService.findNextByClientCpf("53280465081", KeysetCursor.START, 2);
+        ClientVacancy last = first.get(1);
+        List<ClientVacancy> next = clientVacancyService.findNextByClientCpf("53280465081",
+                new KeysetCursor(last.getEntryDate(), last.getId()), 2);
+        ClientVacancy after = next.get(1);
+        List<ClientVacancy> hot = clientVacancyService.findNextByClientCpf("53280465081",
+                new KeysetCursor(after.getEntryDate(), after.getId()), 2);
+
+        Assertions.assertThat(first).extracting(ClientVacancy::getReceipt).containsExactly("OLD-1", "OLD-2", "OLD-OPEN");
+        Assertions.assertThat(first.get(0).getVacancy().getCode()).isEqualTo("R001");
+        Assertions.assertThat(next).extracting(ClientVacancy::getReceipt).containsExactly("OLD-OPEN", "OLD-3", "RECENT");
+        Assertions.assertThat(hot).extracting(ClientVacancy::getReceipt).containsExactly("RECENT");
+    }
+
+    @Test
+    public void writeAllByClientCpf_WithPagesPastArchivedThrough_ReadsTheHotTableOnly() throws IOException {
+        parkingArchiveService.archive(CUTOFF);
+        clientVacancyRepository.saveAll(List.of(
+                session("RECENT-2", client, vacancy, LocalDateTime.of(2024, 3, 10, 8, 0), true),
+                session("RECENT-3", client, vacancy, LocalDateTime.of(2024, 4, 10, 8, 0), true)));
+
+        JsonNode newest = page(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "entryDate")));
+        JsonNode last = page(PageRequest.of(2, 2, Sort.by("entryDate")));
+        Mockito.verify(archiveRepository, Mockito.never()).streamHistoryByClientCpf(Mockito.any(), Mockito.any());
+        JsonNode middle = page(PageRequest.of(1, 2, Sort.by("entryDate")));
+        Mockito.verify(archiveRepository).streamHistoryByClientCpf(Mockito.any(), Mockito.any());
+
+        Assertions.assertThat(newest.get("content")).extracting(row -> row.get("receipt").asText())
+                .containsExactly("RECENT-3", "RECENT-2");
+        Assertions.assertThat(newest.get("hasNext").asBoolean()).isTrue();
+        Assertions.assertThat(last.get("content")).extracting(row -> row.get("receipt").asText())
+                .containsExactly("RECENT", "RECENT-2");
+        Assertions.assertThat(last.get("hasNext").asBoolean()).isTrue();
+        Assertions.assertThat(middle.get("content")).extracting(row -> row.get("receipt").asText())
+                .containsExactly("OLD-OPEN", "OLD-3");
+    }
+
+    @Test
+    public void findAnyByReceipt_WithArchivedSessions_ReadsTheReceiptMonthOrEveryMonth() {
+        String receipt = receiptGenerator.generate();
+        LocalDateTime now = LocalDateTime.now();
+        ClientVacancy closed = session(receipt, client, vacancy, now, true);
+        clientVacancyRepository.save(closed);
+        parkingArchiveService.archive(now.plusDays(1));
+        int month = ClientVacancyArchiveRepository.archiveMonth(now);
+
+        Assertions.assertThat(clientVacancyService.findAnyByReceipt(receipt).getId()).isEqualTo(closed.getId());
+        Mockito.verify(archiveRepository).findByReceipt(Mockito.eq(receipt), Mockito.intThat(from -> from <= month),
+                Mockito.eq(month));
+        Assertions.assertThat(clientVacancyService.findAnyByReceipt("OLD-1").getVacancy().getCode()).isEqualTo("R001");
+        Assertions.assertThat(clientVacancyService.findAnyByReceipt("OLD-OPEN").getDepartureDate()).isNull();
+        Assertions.assertThatThrownBy(() -> clientVacancyService.findAnyByReceipt("MISSING"))
+                .isInstanceOf(EntityNotFoundException.class);
+        Assertions.assertThatThrownBy(() -> clientVacancyService.findByReceipt("OLD-1"))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    public void findByPlate_WithArchivedSessions_FillsTheLatestFromTheArchive() {
+        parkingArchiveService.archive(CUTOFF);
+
+        Assertions.assertThat(clientVacancyService.findByPlate("abc1234")).extracting(ClientVacancy::getReceipt)
+                .containsExactly("RECENT", "OLD-3", "OLD-OPEN", "OLD-2", "OLD-1");
+    }
+
+    private JsonNode page(PageRequest pageable) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        clientVacancyService.writeAllByClientCpf("53280465081", pageable, CountMode.EXACT, output);
+        return objectMapper.readTree(output.toByteArray());
+    }
+
+    private static List<String> receipts(ByteArrayOutputStream csv) {
+        return csv.toString(StandardCharsets.UTF_8).lines().skip(1).map(line -> line.split(",")[0]).toList();
+    }
+
+    private static ClientVacancy session(String receipt, Client client, Vacancy vacancy, LocalDateTime entry, boolean closed) {
+        ClientVacancy session = new ClientVacancy();
+        session.setReceipt(receipt);
+        session.setPlate("ABC-1234");
+        session.setBrand("FIAT");
+        session.setModel("PALIO");
+        session.setColor("BLUE");
+        session.setEntryDate(entry);
+        session.setDepartureDate(closed ? entry.plusHours(2) : null);
+        session.setValue(closed ? new BigDecimal("16.25") : null);
+        session.setDiscount(closed ? BigDecimal.ZERO : null);
+        session.setClient(client);
+        session.setVacancy(vacancy);
+        return session;
+    }
+}
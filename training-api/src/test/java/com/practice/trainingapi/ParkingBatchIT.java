@@ -0,0 +1,121 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.jwt.JwtUtils;
+import com.practice.trainingapi.repository.ClientRepository;
+import com.practice.trainingapi.repository.ClientVacancyRepository;
+import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.service.OccupancyService;
+import com.practice.trainingapi.service.VacancyAllocator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:parking-batch;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@Sql(scripts = "/sql/users/users-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "/sql/users/users-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+public class ParkingBatchIT {
+
+    private static final String ADMIN = "helen215@gmail.com";
+    private static final String CPF = "52998224725";
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    ClientRepository clientRepository;
+    @Autowired
+    VacancyRepository vacancyRepository;
+    @Autowired
+    ClientVacancyRepository clientVacancyRepository;
+    @Autowired
+    VacancyAllocator vacancyAllocator;
+    @Autowired
+    OccupancyService occupancyService;
+
+    @BeforeEach
+    public void setUp() {
+        clientVacancyRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+        vacancyRepository.deleteAllInBatch();
+
+        Client client = new Client();
+        client.setName("Batch Client");
+        client.setCpf(CPF);
+        clientRepository.save(client);
+
+        Vacancy vacancy = new Vacancy();
+        vacancy.setCode("B001");
+        vacancy.setStatus(Vacancy.StatusVacancy.FREE);
+        vacancyRepository.save(vacancy);
+        vacancyAllocator.load();
+        occupancyService.reconcile();
+    }
+
+    @Test
+    public void checkInBatch_WithMixedItems_ReturnsAStatusAndReasonPerItem() throws Exception {
+        JsonNode results = batch("/api/v1/parking-lots/batch", List.of(
+                checkIn("ABC-1234", CPF),
+                checkIn("DEF-5678", "11144477735"),
+                checkIn("GHI-9012", CPF),
+                checkIn("invalid", CPF)));
+
+        Assertions.assertThat(results).extracting(result -> result.get("status").asInt())
+                .containsExactly(201, 404, 409, 422);
+        Assertions.assertThat(results).extracting(result -> result.path("reason").asText(null))
+                .containsExactly(null, "CLIENT_NOT_FOUND", "NO_FREE_VACANCY", "INVALID_FIELD");
+        Assertions.assertThat(results.get(0).get("parking").get("vacationCode").asText()).isEqualTo("B001");
+    }
+
+    @Test
+    public void checkOutBatch_WithMixedReceipts_TellsUnknownFromAlreadyCheckedOut() throws Exception {
+        String receipt = batch("/api/v1/parking-lots/batch", List.of(checkIn("ABC-1234", CPF)))
+                .get(0).get("parking").get("receipt").asText();
+
+        JsonNode results = batch("/api/v1/parking-lots/batch/check-out", List.of(receipt, receipt, "UNKNOWN"));
+        JsonNode again = batch("/api/v1/parking-lots/batch/check-out", List.of(receipt));
+
+        Assertions.assertThat(results).extracting(result -> result.get("status").asInt())
+                .containsExactly(200, 409, 404);
+        Assertions.assertThat(results).extracting(result -> result.path("reason").asText(null))
+                .containsExactly(null, "ALREADY_CHECKED_OUT", "RECEIPT_NOT_FOUND");
+        Assertions.assertThat(again.get(0).get("status").asInt()).isEqualTo(409);
+        Assertions.assertThat(again.get(0).get("reason").asText()).isEqualTo("ALREADY_CHECKED_OUT");
+    }
+
+    private JsonNode batch(String uri, Object body) throws Exception {
+        String response = mockMvc.perform(asAdmin(post(uri))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private static Map<String, String> checkIn(String plate, String cpf) {
+        return Map.of("plate", plate, "brand", "FIAT", "model", "PALIO", "color", "BLUE", "clientCpf", cpf);
+    }
+
+    private static MockHttpServletRequestBuilder asAdmin(MockHttpServletRequestBuilder request) {
+        String token = JwtUtils.createToken(ADMIN, "ADMIN").getToken();
+        return request.header(JwtUtils.JWT_AUTHORIZATION, JwtUtils.JWT_BEARER + token);
+    }
+}
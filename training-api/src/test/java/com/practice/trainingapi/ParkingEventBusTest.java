@@ -0,0 +1,171 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.event.CheckedInEvent;
+import com.practice.trainingapi.event.ParkingEvent;
+import com.practice.trainingapi.event.ParkingEventBus;
+import com.practice.trainingapi.event.ParkingEventConsumer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParkingEventBusTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger sequence = new AtomicInteger();
+    private ParkingEventBus bus;
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        if (bus != null) {
+            bus.stop();
+        }
+    }
+
+    @Test
+    public void publish_WhileTheConsumerIsBusy_DeliversTheBacklogInBatches() throws InterruptedException {
+        RecordingConsumer consumer = new RecordingConsumer(release, 0);
+        bus = start(consumer, 100, 4, 5_000);
+
+        publish(1);
+        Assertions.assertThat(consumer.started.await(5, TimeUnit.SECONDS)).isTrue();
+        publish(10);
+        release.countDown();
+        bus.stop();
+
+        Assertions.assertThat(consumer.batchSizes).first().isEqualTo(1);
+        Assertions.assertThat(consumer.batchSizes.subList(1, consumer.batchSizes.size())).containsExactly(4, 4, 2);
+        Assertions.assertThat(consumer.receipts).isEqualTo(receipts(11));
+        Assertions.assertThat(count("parking.events.consumed")).isEqualTo(11);
+    }
+
+    @Test
+    public void publish_WhenTheBufferIsFull_DropsAndCountsTheOverflow() throws InterruptedException {
+        RecordingConsumer consumer = new RecordingConsumer(release, 0);
+        bus = start(consumer, 2, 4, 5_000);
+
+        publish(1);
+        Assertions.assertThat(consumer.started.await(5, TimeUnit.SECONDS)).isTrue();
+        publish(5);
+        release.countDown();
+        bus.stop();
+
+        Assertions.assertThat(count("parking.events.dropped")).isEqualTo(3);
+        Assertions.assertThat(consumer.receipts).hasSize(3);
+    }
+
+    @Test
+    public void consume_WhenABatchFails_KeepsDeliveringTheNextOnes() throws InterruptedException {
+        RecordingConsumer consumer = new RecordingConsumer(release, 1);
+        release.countDown();
+        bus = start(consumer, 100, 1, 5_000);
+
+        publish(3);
+        bus.stop();
+
+        Assertions.assertThat(consumer.receipts).containsExactly("R1", "R2");
+        Assertions.assertThat(count("parking.events.consumed")).isEqualTo(2);
+    }
+
+    @Test
+    public void stop_WithQueuedEvents_DrainsThemBeforeReturning() throws InterruptedException {
+        RecordingConsumer consumer = new RecordingConsumer(release, 0);
+        bus = start(consumer, 1_000, 8, 5_000);
+
+        publish(1);
+        Assertions.assertThat(consumer.started.await(5, TimeUnit.SECONDS)).isTrue();
+        publish(500);
+        release.countDown();
+        bus.stop();
+
+        Assertions.assertThat(consumer.receipts).isEqualTo(receipts(501));
+    }
+
+    @Test
+    public void stop_WithAStuckConsumer_GivesUpAfterTheTimeout() throws InterruptedException {
+        RecordingConsumer consumer = new RecordingConsumer(release, 0);
+        bus = start(consumer, 100, 8, 200);
+
+        publish(2);
+        Assertions.assertThat(consumer.started.await(5, TimeUnit.SECONDS)).isTrue();
+        long begin = System.nanoTime();
+        bus.stop();
+
+        Assertions.assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin)).isLessThan(2_000);
+        Assertions.assertThat(consumer.interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private ParkingEventBus start(ParkingEventConsumer consumer, int capacity, int batchSize, long shutdownTimeoutMillis) {
+        ParkingEventBus bus = new ParkingEventBus(List.of(consumer), meterRegistry, capacity, batchSize, shutdownTimeoutMillis);
+        bus.start();
+        return bus;
+    }
+
+    private void publish(int events) {
+        for (int i = 0; i < events; i++) {
+            bus.publish(new CheckedInEvent("R" + sequence.getAndIncrement(), "53280465081", "V001", "ABC-1234", LocalDateTime.now(), Instant.now()));
+        }
+    }
+
+    private double count(String counter) {
+        return meterRegistry.get(counter).counter().count();
+    }
+
+    private static List<String> receipts(int count) {
+        List<String> receipts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            receipts.add("R" + i);
+        }
+        return receipts;
+    }
+
+    // Blocks in its first batch until released and fails the given number of batches after it
+    private static class RecordingConsumer implements ParkingEventConsumer {
+
+        private final CountDownLatch release;
+        private final AtomicInteger failures;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> receipts = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingConsumer(CountDownLatch release, int failures) {
+            this.release = release;
+            this.failures = new AtomicInteger(failures);
+        }
+
+        @Override
+        public String getName() {
+            return "recording";
+        }
+
+        @Override
+        public void consume(List<ParkingEvent> events) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("consumer failed");
+            }
+            batchSizes.add(events.size());
+            events.forEach(event -> receipts.add(event.getReceipt()));
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.practice.trainingapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.entity.ClientVacancy;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.jwt.JwtUtils;
+import com.practice.trainingapi.repository.ClientRepository;
+import com.practice.trainingapi.repository.ClientVacancyRepository;
+import com.practice.trainingapi.repository.UserRepository;
+import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.service.OpenSessionIndex;
+import com.practice.trainingapi.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The SQL statements each history endpoint issues, counted from the request to the last byte of the body
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:parking-history-endpoints;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@Sql(scripts = "/sql/users/users-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "/sql/users/users-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+public class ParkingHistoryEndpointIT {
+
+    private static final String ADMIN = "helen215@gmail.com";
+    private static final String USER = "hermione@gmail.com";
+    private static final String CPF = "52998224725";
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ClientRepository clientRepository;
+    @Autowired
+    VacancyRepository vacancyRepository;
+    @Autowired
+    ClientVacancyRepository clientVacancyRepository;
+    @Autowired
+    OpenSessionIndex openSessionIndex;
+    @Autowired
+    UserService userService;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        clientVacancyRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+        vacancyRepository.deleteAllInBatch();
+
+        Client client = new Client();
+        client.setName("History Client");
+        client.setCpf(CPF);
+        client.setUser(userRepository.findById(102L).orElseThrow());
+        clientRepository.save(client);
+
+        Vacancy vacancy = new Vacancy();
+        vacancy.setCode("H001");
+        vacancy.setStatus(Vacancy.StatusVacancy.BUSY);
+        vacancyRepository.save(vacancy);
+
+        List<ClientVacancy> sessions = new ArrayList<>();
+        LocalDateTime entry = LocalDateTime.of(2024, 1, 1, 8, 0);
+        for (int i = 0; i < 7; i++) {
+            ClientVacancy session = new ClientVacancy();
+            session.setReceipt(String.format("20240101-08000%d", i));
+            session.setPlate("ABC-1234");
+            session.setBrand("FIAT");
+            session.setModel("PALIO");
+            session.setColor("BLUE");
+            session.setEntryDate(entry.plusDays(i));
+            session.setDepartureDate(i < 6 ? entry.plusDays(i).plusHours(2) : null);
+            session.setValue(i < 6 ? new BigDecimal("16.25") : null);
+            session.setDiscount(i < 6 ? BigDecimal.ZERO : null);
+            session.setClient(client);
+            session.setVacancy(vacancy);
+            sessions.add(session);
+        }
+        clientVacancyRepository.saveAll(sessions);
+        openSessionIndex.load();
+
+        // the JWT filter resolves the user on every request, warm its cache so the counts are the endpoint's own
+        userService.findByUsername(ADMIN);
+        userService.findByUsername(USER);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        clientVacancyRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void getAllParkingsByCpf_WithEachCountMode_RunsOnlyTheQueriesItNeeds() throws Exception {
+        JsonNode exact = stream(ADMIN, "ADMIN", "/api/v1/parking-lots/cpf/" + CPF + "?count=true");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        Assertions.assertThat(exact.get("content")).hasSize(5);
+        Assertions.assertThat(exact.at("/content/0/clientCpf").asText()).isEqualTo(CPF);
+        Assertions.assertThat(exact.at("/content/0/vacancyCode").asText()).isEqualTo("H001");
+        Assertions.assertThat(exact.get("totalElements").asLong()).isEqualTo(7);
+
+        JsonNode sliced = stream(ADMIN, "ADMIN", "/api/v1/parking-lots/cpf/" + CPF + "?count=false");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(sliced.get("hasNext").asBoolean()).isTrue();
+        Assertions.assertThat(sliced.has("totalElements")).isFalse();
+
+        stream(ADMIN, "ADMIN", "/api/v1/parking-lots/cpf/" + CPF + "?count=approx");
+        long first = statistics.getPrepareStatementCount();
+        JsonNode last = stream(ADMIN, "ADMIN", "/api/v1/parking-lots/cpf/" + CPF + "?count=approx&page=1");
+        Assertions.assertThat(first + statistics.getPrepareStatementCount()).isEqualTo(3);
+        Assertions.assertThat(last.get("pageElements").asInt()).isEqualTo(2);
+        Assertions.assertThat(last.get("last").asBoolean()).isTrue();
+    }
+
+    @Test
+    public void getAllParkingClient_WithoutCount_RunsOneQuery() throws Exception {
+        JsonNode page = stream(USER, "USER", "/api/v1/parking-lots?count=false");
+
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(page.get("content")).hasSize(5);
+    }
+
+    @Test
+    public void getByReceiptAndPlate_WithLazyAssociations_FetchClientAndVacancyInOneQuery() throws Exception {
+        JsonNode open = perform(ADMIN, "ADMIN", "/api/v1/parking-lots/20240101-080006");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(open.get("clientCpf").asText()).isEqualTo(CPF);
+        Assertions.assertThat(open.get("vacationCode").asText()).isEqualTo("H001");
+
+        JsonNode byPlate = perform(ADMIN, "ADMIN", "/api/v1/parking-lots/plate/abc1234");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(byPlate).extracting(session -> session.get("clientCpf").asText()).containsOnly(CPF);
+    }
+
+    @Test
+    public void cursorEndpointsAndClientList_RunOneQueryEach() throws Exception {
+        JsonNode byCpf = perform(ADMIN, "ADMIN", "/api/v1/parking-lots/cpf/" + CPF + "/cursor");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(byCpf.get("content")).extracting(session -> session.get("vacationCode").asText())
+                .containsOnly("H001");
+
+        perform(USER, "USER", "/api/v1/parking-lots/cursor");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        stream(ADMIN, "ADMIN", "/api/v1/clients?count=false");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private JsonNode perform(String username, String role, String uri) throws Exception {
+        statistics.clear();
+        String body = mockMvc.perform(as(username, role, get(uri)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private JsonNode stream(String username, String role, String uri) throws Exception {
+        statistics.clear();
+        MvcResult result = mockMvc.perform(as(username, role, get(uri))).andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static MockHttpServletRequestBuilder as(String username, String role, MockHttpServletRequestBuilder request) {
+        String token = JwtUtils.createToken(username, role).getToken();
+        return request.header(JwtUtils.JWT_AUTHORIZATION, JwtUtils.JWT_BEARER + token);
+    }
+}
@@ -0,0 +1,193 @@
+package com.practice.trainingapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.entity.ClientVacancy;
+import com.practice.trainingapi.entity.User;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.repository.ClientRepository;
+import com.practice.trainingapi.repository.ClientVacancyArchiveRepository;
+import com.practice.trainingapi.repository.ClientVacancyRepository;
+import com.practice.trainingapi.repository.UserRepository;
+import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.service.ClientService;
+import com.practice.trainingapi.service.ClientVacancyService;
+import com.practice.trainingapi.service.CountCache;
+import com.practice.trainingapi.service.CountMode;
+import com.practice.trainingapi.service.OpenSessionIndex;
+import com.practice.trainingapi.service.PageJsonWriter;
+import com.practice.trainingapi.service.ParkingArchiveService;
+import com.practice.trainingapi.util.KeysetCursor;
+import com.practice.trainingapi.util.SequenceReceiptGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Every history read runs outside a transaction, as with open-in-view disabled, and the SQL it issues is counted
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:parking-history;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ClientVacancyService.class, ClientService.class, OpenSessionIndex.class, CountCache.class, PageJsonWriter.class,
+        ClientVacancyArchiveRepository.class, ParkingArchiveService.class, SequenceReceiptGenerator.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ParkingHistoryQueryIT {
+
+    private static final String CPF = "53280465081";
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 5, Sort.by("entryDate"));
+
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ClientRepository clientRepository;
+    @Autowired
+    VacancyRepository vacancyRepository;
+    @Autowired
+    ClientVacancyRepository clientVacancyRepository;
+    @Autowired
+    ClientVacancyService clientVacancyService;
+    @Autowired
+    ClientService clientService;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    Statistics statistics;
+    Long userId;
+
+    @BeforeEach
+    public void setUp() {
+        clientVacancyRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        vacancyRepository.deleteAllInBatch();
+
+        User user = new User();
+        user.setUsername("history@email.com");
+        user.setPassword("123456");
+        user.setRole(User.Role.ROLE_USER);
+        userRepository.save(user);
+        userId = user.getId();
+
+        Client client = new Client();
+        client.setName("History Client");
+        client.setCpf(CPF);
+        client.setUser(user);
+        clientRepository.save(client);
+
+        Vacancy vacancy = new Vacancy();
+        vacancy.setCode("H001");
+        vacancy.setStatus(Vacancy.StatusVacancy.BUSY);
+        vacancyRepository.save(vacancy);
+
+        List<ClientVacancy> sessions = new ArrayList<>();
+        LocalDateTime entry = LocalDateTime.of(2024, 1, 1, 8, 0);
+        for (int i = 0; i < 7; i++) {
+            ClientVacancy session = new ClientVacancy();
+            session.setReceipt(String.format("20240101-08000%d", i));
+            session.setPlate("ABC-1234");
+            session.setBrand("FIAT");
+            session.setModel("PALIO");
+            session.setColor("BLUE");
+            session.setEntryDate(entry.plusDays(i));
+            session.setDepartureDate(i < 6 ? entry.plusDays(i).plusHours(2) : null);
+            session.setValue(i < 6 ? new BigDecimal("16.25") : null);
+            session.setDiscount(i < 6 ? BigDecimal.ZERO : null);
+            session.setClient(client);
+            session.setVacancy(vacancy);
+            sessions.add(session);
+        }
+        clientVacancyRepository.saveAll(sessions);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void writeAllByClientCpf_WithEachCountMode_RunsOnlyTheQueriesItNeeds() throws IOException {
+        JsonNode exact = writeAllByClientCpf(FIRST_PAGE, CountMode.EXACT);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        Assertions.assertThat(exact.get("content")).hasSize(5);
+        Assertions.assertThat(exact.at("/content/0/clientCpf").asText()).isEqualTo(CPF);
+        Assertions.assertThat(exact.at("/content/0/vacancyCode").asText()).isEqualTo("H001");
+        Assertions.assertThat(exact.get("totalElements").asLong()).isEqualTo(7);
+
+        statistics.clear();
+        JsonNode sliced = writeAllByClientCpf(FIRST_PAGE, CountMode.NONE);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(sliced.get("hasNext").asBoolean()).isTrue();
+        Assertions.assertThat(sliced.has("totalElements")).isFalse();
+
+        statistics.clear();
+        writeAllByClientCpf(FIRST_PAGE, CountMode.APPROXIMATE);
+        JsonNode last = writeAllByClientCpf(FIRST_PAGE.next(), CountMode.APPROXIMATE);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        Assertions.assertThat(last.get("pageElements").asInt()).isEqualTo(2);
+        Assertions.assertThat(last.get("last").asBoolean()).isTrue();
+    }
+
+    @Test
+    public void writeAllByUserId_WithoutCount_RunsOneQuery() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        clientVacancyService.writeAllByUserId(userId, FIRST_PAGE, CountMode.NONE, output);
+
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(objectMapper.readTree(output.toByteArray()).get("content")).hasSize(5);
+    }
+
+    @Test
+    public void findByReceiptAndPlate_WithLazyAssociations_FetchClientAndVacancyInOneQuery() {
+        ClientVacancy open = clientVacancyService.findByReceipt("20240101-080006");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(open.getClient().getCpf()).isEqualTo(CPF);
+        Assertions.assertThat(open.getVacancy().getCode()).isEqualTo("H001");
+
+        statistics.clear();
+        List<ClientVacancy> byPlate = clientVacancyService.findByPlate("abc1234");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(byPlate).extracting(session -> session.getClient().getCpf()).containsOnly(CPF);
+    }
+
+    @Test
+    public void findNextByClientCpfAndClientList_RunOneQueryEach() throws IOException {
+        List<ClientVacancy> page = clientVacancyService.findNextByClientCpf(CPF, KeysetCursor.START, 5);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(page).extracting(session -> session.getVacancy().getCode()).containsOnly("H001");
+
+        statistics.clear();
+        clientService.writeAll(PageRequest.of(0, 5, Sort.by("name")), CountMode.NONE, new ByteArrayOutputStream());
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private JsonNode writeAllByClientCpf(Pageable pageable, CountMode count) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        clientVacancyService.writeAllByClientCpf(CPF, pageable, count, output);
+        return objectMapper.readTree(output.toByteArray());
+    }
+}
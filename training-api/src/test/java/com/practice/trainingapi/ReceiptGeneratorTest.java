@@ -0,0 +1,65 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.util.ReceiptGenerator;
+import com.practice.trainingapi.util.SequenceReceiptGenerator;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ReceiptGeneratorTest {
+
+    @Test
+    public void generate_WithConcurrentThreadsAndNodes_ReturnUniqueReceipts() throws InterruptedException {
+        ReceiptGenerator first = new SequenceReceiptGenerator(1);
+        ReceiptGenerator second = new SequenceReceiptGenerator(2);
+        Set<String> receipts = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            ReceiptGenerator generator = i % 2 == 0 ? first : second;
+            executor.submit(() -> {
+                for (int j = 0; j < 50_000; j++) {
+                    receipts.add(generator.generate());
+                }
+            });
+        }
+        executor.shutdown();
+        Assertions.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        Assertions.assertThat(receipts).hasSize(400_000);
+    }
+
+    @Test
+    public void timestampOf_WithGeneratedReceipt_ReturnGenerationTime() {
+        ReceiptGenerator generator = new SequenceReceiptGenerator(0);
+        Instant before = Instant.now();
+        String receipt = generator.generate();
+
+        Assertions.assertThat(receipt).hasSize(14);
+        Assertions.assertThat(generator.isValid(receipt)).isTrue();
+        Assertions.assertThat(Duration.between(before, generator.timestampOf(receipt)).abs()).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void isValid_WithMistypedReceipt_ReturnFalse() {
+        ReceiptGenerator generator = new SequenceReceiptGenerator(0);
+        String receipt = generator.generate();
+        Set<String> mistyped = new HashSet<>();
+        for (int i = 0; i < receipt.length(); i++) {
+            char[] chars = receipt.toCharArray();
+            chars[i] = chars[i] == '0' ? '1' : '0';
+            mistyped.add(new String(chars));
+        }
+
+        Assertions.assertThat(mistyped).noneMatch(generator::isValid);
+        Assertions.assertThat(generator.isValid("20240101-120000")).isFalse();
+    }
+}
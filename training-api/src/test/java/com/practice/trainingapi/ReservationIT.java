@@ -0,0 +1,197 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.entity.Reservation;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.exception.EntityNotFoundException;
+import com.practice.trainingapi.repository.ClientRepository;
+import com.practice.trainingapi.repository.ReservationRepository;
+import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.service.OccupancyService;
+import com.practice.trainingapi.service.ReservationService;
+import com.practice.trainingapi.service.VacancyAllocator;
+import com.practice.trainingapi.service.VacancyEventPublisher;
+import com.practice.trainingapi.service.VacancyPreference;
+import com.practice.trainingapi.service.VacancyService;
+import com.practice.trainingapi.util.SequenceReceiptGenerator;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.practice.trainingapi.entity.Vacancy.StatusVacancy.BUSY;
+import static com.practice.trainingapi.entity.Vacancy.StatusVacancy.FREE;
+import static com.practice.trainingapi.entity.Vacancy.StatusVacancy.RESERVED;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservation;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "parking.reservations.hold=2s",
+        "parking.reservations.tick-ms=50"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReservationService.class, VacancyService.class, VacancyAllocator.class, OccupancyService.class,
+        VacancyEventPublisher.class, SequenceReceiptGenerator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReservationIT {
+
+    private static final int VACANCIES = 3;
+    private static final String CPF = "53280465081";
+    private static final String OTHER_CPF = "71844321020";
+
+    @Autowired
+    ReservationRepository reservationRepository;
+    @Autowired
+    ClientRepository clientRepository;
+    @Autowired
+    VacancyRepository vacancyRepository;
+    @Autowired
+    ReservationService reservationService;
+    @Autowired
+    VacancyAllocator vacancyAllocator;
+    @Autowired
+    OccupancyService occupancyService;
+
+    Client client;
+
+    @BeforeEach
+    public void setUp() {
+        reservationRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+        vacancyRepository.deleteAllInBatch();
+
+        client = new Client();
+        client.setName("Reservation Client");
+        client.setCpf(CPF);
+        clientRepository.save(client);
+
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < VACANCIES; i++) {
+            Vacancy vacancy = new Vacancy();
+            vacancy.setCode(String.format("H%03d", i));
+            vacancy.setStatus(FREE);
+            vacancies.add(vacancy);
+        }
+        vacancyRepository.saveAll(vacancies);
+        vacancyAllocator.load();
+        occupancyService.reconcile();
+    }
+
+    @Test
+    public void reserve_ThenConvert_HoldsTheVacancyAndOccupiesIt() {
+        Reservation reservation = reservationService.reserve(client, VacancyPreference.none());
+
+        Assertions.assertThat(status(reservation)).isEqualTo(RESERVED);
+        Assertions.assertThat(vacancyAllocator.freeCount()).isEqualTo(VACANCIES - 1);
+        Assertions.assertThat(occupancyService.getFree()).isEqualTo(VACANCIES - 1);
+        Assertions.assertThat(occupancyService.getBusy()).isEqualTo(1);
+
+        reservationService.convert(reservation.getCode(), CPF);
+
+        Assertions.assertThat(reservationStatus(reservation)).isEqualTo(Reservation.Status.CONVERTED);
+        Assertions.assertThat(status(reservation)).isEqualTo(BUSY);
+        Assertions.assertThat(vacancyAllocator.freeCount()).isEqualTo(VACANCIES - 1);
+        Assertions.assertThat(occupancyService.getBusy()).isEqualTo(1);
+        Assertions.assertThatThrownBy(() -> reservationService.convert(reservation.getCode(), CPF))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    public void convertAndCancel_WithOtherClientCpf_ThrowsEntityNotFound() {
+        Reservation reservation = reservationService.reserve(client, VacancyPreference.none());
+
+        Assertions.assertThatThrownBy(() -> reservationService.convert(reservation.getCode(), OTHER_CPF))
+                .isInstanceOf(EntityNotFoundException.class);
+        Assertions.assertThatThrownBy(() -> reservationService.cancel(reservation.getCode(), OTHER_CPF))
+                .isInstanceOf(EntityNotFoundException.class);
+
+        Assertions.assertThat(reservationStatus(reservation)).isEqualTo(Reservation.Status.ACTIVE);
+        Assertions.assertThat(status(reservation)).isEqualTo(RESERVED);
+    }
+
+    @Test
+    public void cancel_WithActiveReservation_ReturnsVacancyToAllocator() {
+        Reservation reservation = reservationService.reserve(client, VacancyPreference.none());
+
+        reservationService.cancel(reservation.getCode(), CPF);
+
+        Assertions.assertThat(reservationStatus(reservation)).isEqualTo(Reservation.Status.CANCELLED);
+        Assertions.assertThat(status(reservation)).isEqualTo(FREE);
+        Assertions.assertThat(vacancyAllocator.freeCount()).isEqualTo(VACANCIES);
+        Assertions.assertThat(occupancyService.getFree()).isEqualTo(VACANCIES);
+        Assertions.assertThat(occupancyService.getBusy()).isZero();
+    }
+
+    @Test
+    public void expire_AfterHold_FreesHeldVacancyAndKeepsConvertedOne() throws InterruptedException {
+        Reservation held = reservationService.reserve(client, VacancyPreference.none());
+        Reservation converted = reservationService.reserve(client, VacancyPreference.none());
+        reservationService.convert(converted.getCode(), CPF);
+        Assertions.assertThat(vacancyAllocator.freeCount()).isEqualTo(VACANCIES - 2);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (reservationStatus(held) == Reservation.Status.ACTIVE && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            reservationService.expire();
+        }
+
+        Assertions.assertThat(reservationStatus(held)).isEqualTo(Reservation.Status.EXPIRED);
+        Assertions.assertThat(status(held)).isEqualTo(FREE);
+        Assertions.assertThat(reservationStatus(converted)).isEqualTo(Reservation.Status.CONVERTED);
+        Assertions.assertThat(status(converted)).isEqualTo(BUSY);
+        Assertions.assertThat(vacancyAllocator.freeCount()).isEqualTo(VACANCIES - 1);
+        Assertions.assertThat(occupancyService.getBusy()).isEqualTo(1);
+        Assertions.assertThatThrownBy(() -> reservationService.convert(held.getCode(), CPF))
+                .isInstanceOf(EntityNotFoundException.class);
+
+        // Both remaining free spots, the expired one included, can be reserved again
+        List<Long> reserved = List.of(
+                reservationService.reserve(client, VacancyPreference.none()).getVacancy().getId(),
+                reservationService.reserve(client, VacancyPreference.none()).getVacancy().getId());
+        Assertions.assertThat(reserved).contains(held.getVacancy().getId());
+        Assertions.assertThat(vacancyAllocator.freeCount()).isZero();
+    }
+
+    @Test
+    public void load_WithAHoldFromAnotherInstance_ExpiresIt() throws InterruptedException {
+        Vacancy vacancy = vacancyRepository.findAll().get(0);
+        vacancy.setStatus(RESERVED);
+        vacancyRepository.save(vacancy);
+        Reservation remote = new Reservation();
+        remote.setClient(client);
+        remote.setVacancy(vacancy);
+        remote.setCode("REMOTE-HOLD");
+        remote.setCreatedAt(LocalDateTime.now());
+        remote.setExpiresAt(LocalDateTime.now().plusSeconds(1));
+        reservationRepository.save(remote);
+        vacancyAllocator.load();
+        occupancyService.reconcile();
+
+        reservationService.load();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (reservationStatus(remote) == Reservation.Status.ACTIVE && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            reservationService.expire();
+        }
+
+        Assertions.assertThat(reservationStatus(remote)).isEqualTo(Reservation.Status.EXPIRED);
+        Assertions.assertThat(status(remote)).isEqualTo(FREE);
+        Assertions.assertThat(vacancyAllocator.freeCount()).isEqualTo(VACANCIES);
+    }
+
+    private Reservation.Status reservationStatus(Reservation reservation) {
+        return reservationRepository.findById(reservation.getId()).orElseThrow().getStatus();
+    }
+
+    private Vacancy.StatusVacancy status(Reservation reservation) {
+        return vacancyRepository.findById(reservation.getVacancy().getId()).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,206 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.entity.ClientVacancy;
+import com.practice.trainingapi.entity.RevenueRollup;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.exception.RebuildInProgressException;
+import com.practice.trainingapi.repository.ClientRepository;
+import com.practice.trainingapi.repository.ClientVacancyArchiveRepository;
+import com.practice.trainingapi.repository.ClientVacancyRepository;
+import com.practice.trainingapi.repository.RevenueRollupRepository;
+import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.repository.projection.RevenueRow;
+import com.practice.trainingapi.service.RevenueRollupService;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:revenue-rollup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "parking.reports.rebuild-threads=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ClientVacancyArchiveRepository.class, RevenueRollupService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RevenueRollupIT {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final LocalDateTime NEXT_DAY = DAY.plusDays(1);
+
+    @Autowired
+    ClientRepository clientRepository;
+    @Autowired
+    VacancyRepository vacancyRepository;
+    @Autowired
+    ClientVacancyRepository clientVacancyRepository;
+    @Autowired
+    ClientVacancyArchiveRepository clientVacancyArchiveRepository;
+    @Autowired
+    RevenueRollupRepository revenueRollupRepository;
+    @Autowired
+    RevenueRollupService revenueRollupService;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    List<ClientVacancy> sessions = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        clientVacancyArchiveRepository.createTable(false);
+        revenueRollupRepository.deleteAllInBatch();
+        clientVacancyRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+        vacancyRepository.deleteAllInBatch();
+
+        Client client = new Client();
+        client.setName("Rollup Client");
+        client.setCpf("53280465081");
+        clientRepository.save(client);
+
+        Vacancy vacancy = new Vacancy();
+        vacancy.setCode("R001");
+        vacancy.setZone("A");
+        vacancy.setStatus(Vacancy.StatusVacancy.FREE);
+        vacancyRepository.save(vacancy);
+
+        sessions = clientVacancyRepository.saveAll(List.of(
+                session("ROLLUP-1", client, vacancy, DAY.withHour(10).withMinute(5), "16.25", "1.00"),
+                session("ROLLUP-2", client, vacancy, DAY.withHour(10).withMinute(40), "9.25", "0.00"),
+                session("ROLLUP-3", client, vacancy, NEXT_DAY.withHour(9).withMinute(15), "5.00", "0.50")));
+    }
+
+    @Test
+    public void record_WithTwoBatchesInSameBucket_AddsThemUp() {
+        revenueRollupService.record(List.of(row(sessions.get(0))));
+        revenueRollupService.record(List.of(row(sessions.get(1))));
+
+        Assertions.assertThat(revenueRollupService.findAll(RevenueRollup.Granularity.HOUR, DAY.withHour(10), DAY.withHour(11), "A"))
+                .extracting(RevenueRollup::getSessions, RevenueRollup::getRevenueCents, RevenueRollup::getDiscountCents)
+                .containsExactly(Tuple.tuple(2L, 2_550L, 100L));
+        Assertions.assertThat(revenueRollupService.findAll(RevenueRollup.Granularity.DAY, DAY, NEXT_DAY, null))
+                .extracting(RevenueRollup::getSessions, RevenueRollup::getRevenueCents)
+                .containsExactly(Tuple.tuple(2L, 2_550L));
+    }
+
+    @Test
+    public void rebuild_WithHistory_ReproducesIncrementalTotals() {
+        sessions.forEach(session -> revenueRollupService.record(List.of(row(session))));
+        List<Tuple> hours = totals(RevenueRollup.Granularity.HOUR);
+        List<Tuple> days = totals(RevenueRollup.Granularity.DAY);
+
+        RevenueRollupService.RebuildResult result = revenueRollupService.rebuild();
+
+        Assertions.assertThat(result.getSessions()).isEqualTo(3);
+        Assertions.assertThat(totals(RevenueRollup.Granularity.HOUR)).isEqualTo(hours).hasSize(2);
+        Assertions.assertThat(totals(RevenueRollup.Granularity.DAY)).isEqualTo(days).hasSize(2);
+    }
+
+    @Test
+    public void record_InsideRolledBackCheckOut_LeavesNoRollup() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            revenueRollupService.record(List.of(row(sessions.get(0))));
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertThat(revenueRollupRepository.count()).isZero();
+    }
+
+    @Test
+    public void rebuild_WithCurrentDayRollups_ReplacesClosedDaysAndKeepsToday() {
+        sessions.forEach(session -> revenueRollupService.record(List.of(row(session))));
+        List<Tuple> days = totals(RevenueRollup.Granularity.DAY);
+        LocalDateTime now = LocalDateTime.now();
+        revenueRollupService.record(List.of(
+                new RevenueRow(DAY.withHour(10), "A", new BigDecimal("99.00"), BigDecimal.ZERO),
+                new RevenueRow(now, "A", new BigDecimal("7.00"), BigDecimal.ZERO)));
+
+        revenueRollupService.rebuild();
+
+        Assertions.assertThat(totals(RevenueRollup.Granularity.DAY)).isEqualTo(days);
+        Assertions.assertThat(revenueRollupService.findAll(RevenueRollup.Granularity.HOUR, now, now.plusHours(1), "A"))
+                .extracting(RevenueRollup::getSessions, RevenueRollup::getRevenueCents)
+                .containsExactly(Tuple.tuple(1L, 700L));
+    }
+
+    @Test
+    public void rebuild_CalledConcurrently_RunsOneAtATimeAndRejectsTheOthers() throws Exception {
+        sessions.forEach(session -> revenueRollupService.record(List.of(row(session))));
+        List<Tuple> days = totals(RevenueRollup.Granularity.DAY);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<RevenueRollupService.RebuildResult>> calls = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                calls.add(executor.submit(revenueRollupService::rebuild));
+            }
+            for (Future<RevenueRollupService.RebuildResult> call : calls) {
+                try {
+                    Assertions.assertThat(call.get().getSessions()).isEqualTo(3);
+                } catch (ExecutionException e) {
+                    Assertions.assertThat(e.getCause()).isInstanceOf(RebuildInProgressException.class);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertThat(totals(RevenueRollup.Granularity.DAY)).isEqualTo(days);
+    }
+
+    @Test
+    public void findAllInRange_WithBucketStartingAtTo_ExcludesIt() {
+        revenueRollupService.record(sessions.stream().map(RevenueRollupIT::row).toList());
+        LocalDateTime lastBucket = NEXT_DAY.withHour(9);
+
+        Assertions.assertThat(revenueRollupService.findAll(RevenueRollup.Granularity.HOUR, DAY, lastBucket, "A"))
+                .extracting(RevenueRollup::getBucketStart).containsExactly(DAY.withHour(10));
+        Assertions.assertThat(revenueRollupService.findAll(RevenueRollup.Granularity.HOUR, DAY, lastBucket.plusSeconds(1), "A"))
+                .extracting(RevenueRollup::getBucketStart).containsExactly(DAY.withHour(10), lastBucket);
+    }
+
+    private List<Tuple> totals(RevenueRollup.Granularity granularity) {
+        return revenueRollupService.findAll(granularity, DAY, NEXT_DAY.plusDays(1), null).stream()
+                .map(rollup -> Tuple.tuple(rollup.getBucketStart(), rollup.getZone(), rollup.getSessions(),
+                        rollup.getRevenueCents(), rollup.getDiscountCents()))
+                .toList();
+    }
+
+    private static RevenueRow row(ClientVacancy session) {
+        return new RevenueRow(session.getDepartureDate(), "A", session.getValue(), session.getDiscount());
+    }
+
+    private static ClientVacancy session(String receipt, Client client, Vacancy vacancy, LocalDateTime departure,
+                                         String value, String discount) {
+        ClientVacancy session = new ClientVacancy();
+        session.setReceipt(receipt);
+        session.setPlate("ABC-1234");
+        session.setBrand("FIAT");
+        session.setModel("PALIO");
+        session.setColor("BLUE");
+        session.setEntryDate(departure.minusHours(1));
+        session.setDepartureDate(departure);
+        session.setValue(new BigDecimal(value));
+        session.setDiscount(new BigDecimal(discount));
+        session.setClient(client);
+        session.setVacancy(vacancy);
+        return session;
+    }
+}
@@ -0,0 +1,75 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.jwt.JwtUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql(scripts = "/sql/users/users-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "/sql/users/users-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+public class RoleAccessIT {
+
+    private static final String ADMIN = "helen215@gmail.com";
+    private static final String USER = "hermione@gmail.com";
+    private static final String RECEIPT = "20240101-000000-0001";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void checkOut_WithAdminToken_PassesRoleCheck() throws Exception {
+        mockMvc.perform(as(ADMIN, "ADMIN", put("/api/v1/parking-lots/check-out/{receipt}", RECEIPT)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void checkOut_WithUserToken_ReturnsForbidden() throws Exception {
+        mockMvc.perform(as(USER, "USER", put("/api/v1/parking-lots/check-out/{receipt}", RECEIPT)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void getByReceipt_WithAdminOrUserToken_PassesRoleCheck() throws Exception {
+        mockMvc.perform(as(ADMIN, "ADMIN", get("/api/v1/parking-lots/{receipt}", RECEIPT)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(as(USER, "USER", get("/api/v1/parking-lots/{receipt}", RECEIPT)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void clientEndpoints_WithUserToken_PassRoleCheckAndRejectAdmin() throws Exception {
+        mockMvc.perform(as(USER, "USER", get("/api/v1/clients/details")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(as(ADMIN, "ADMIN", get("/api/v1/clients/details")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void occupancy_WithAdminOrUserToken_ReturnsOk() throws Exception {
+        mockMvc.perform(as(ADMIN, "ADMIN", get("/api/v1/vacacies/occupancy")))
+                .andExpect(status().isOk());
+        mockMvc.perform(as(USER, "USER", get("/api/v1/vacacies/occupancy")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void checkOut_WithoutToken_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(put("/api/v1/parking-lots/check-out/{receipt}", RECEIPT))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static MockHttpServletRequestBuilder as(String username, String role, MockHttpServletRequestBuilder request) {
+        String token = JwtUtils.createToken(username, role).getToken();
+        return request.header(JwtUtils.JWT_AUTHORIZATION, JwtUtils.JWT_BEARER + token);
+    }
+}
@@ -0,0 +1,163 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.entity.User;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.repository.ClientRepository;
+import com.practice.trainingapi.repository.UserRepository;
+import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.service.ClientService;
+import com.practice.trainingapi.service.CountCache;
+import com.practice.trainingapi.service.OccupancyService;
+import com.practice.trainingapi.service.PageJsonWriter;
+import com.practice.trainingapi.service.VacancyAllocator;
+import com.practice.trainingapi.service.VacancyEventPublisher;
+import com.practice.trainingapi.service.VacancyPreference;
+import com.practice.trainingapi.service.VacancyService;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=fail",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ClientService.class, CountCache.class, PageJsonWriter.class, VacancyService.class, VacancyAllocator.class,
+        OccupancyService.class, VacancyEventPublisher.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheIT {
+
+    @Autowired
+    VacancyRepository vacancyRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ClientRepository clientRepository;
+    @Autowired
+    ClientService clientService;
+    @Autowired
+    VacancyService vacancyService;
+    @Autowired
+    VacancyAllocator vacancyAllocator;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate transaction;
+    Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        vacancyRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+
+        for (String code : List.of("C001", "C002")) {
+            Vacancy vacancy = new Vacancy();
+            vacancy.setCode(code);
+            vacancy.setStatus(Vacancy.StatusVacancy.FREE);
+            vacancyRepository.save(vacancy);
+        }
+
+        User user = new User();
+        user.setUsername("cache@email.com");
+        user.setPassword("first");
+        userRepository.save(user);
+
+        for (String cpf : List.of("53280465081", "71844321020")) {
+            Client client = new Client();
+            client.setName("Cache Client");
+            client.setCpf(cpf);
+            clientRepository.save(client);
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void findBySimpleNaturalId_WhenCached_RunsNoQuery() {
+        vacancyRepository.findBySimpleNaturalId("C001");
+        statistics.clear();
+
+        Vacancy vacancy = vacancyRepository.findBySimpleNaturalId("C001").orElseThrow();
+
+        Assertions.assertThat(vacancy.getStatus()).isEqualTo(Vacancy.StatusVacancy.FREE);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+        Assertions.assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void findByFreeVacancy_OnCheckIn_EvictsOnlyTheClaimedVacancy() {
+        vacancyAllocator.load();
+        vacancyRepository.findBySimpleNaturalId("C001");
+        vacancyRepository.findBySimpleNaturalId("C002");
+
+        Vacancy claimed = transaction.execute(status -> vacancyService.findByFreeVacancy(VacancyPreference.none()));
+        String otherCode = claimed.getCode().equals("C001") ? "C002" : "C001";
+        statistics.clear();
+
+        Vacancy other = vacancyRepository.findBySimpleNaturalId(otherCode).orElseThrow();
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+        Assertions.assertThat(other.getStatus()).isEqualTo(Vacancy.StatusVacancy.FREE);
+
+        Assertions.assertThat(claimed.getStatus()).isEqualTo(Vacancy.StatusVacancy.BUSY);
+        Assertions.assertThat(vacancyRepository.findBySimpleNaturalId(claimed.getCode()).orElseThrow().getStatus())
+                .isEqualTo(Vacancy.StatusVacancy.BUSY);
+    }
+
+    @Test
+    public void findBySimpleNaturalId_AfterPasswordChange_ReadsTheNewPasswordFromCache() {
+        transaction.executeWithoutResult(status ->
+                userRepository.findBySimpleNaturalId("cache@email.com").orElseThrow().setPassword("second"));
+        statistics.clear();
+
+        User user = userRepository.findBySimpleNaturalId("cache@email.com").orElseThrow();
+
+        Assertions.assertThat(user.getPassword()).isEqualTo("second");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void registerCompletedVisits_OnCheckout_KeepsOtherClientsCached() {
+        clientRepository.findBySimpleNaturalId("53280465081");
+        clientRepository.findBySimpleNaturalId("71844321020");
+
+        long previous = transaction.execute(status -> clientService.registerCompletedVisits(
+                clientRepository.findBySimpleNaturalId("53280465081").orElseThrow(), 1));
+        statistics.clear();
+
+        Client other = clientRepository.findBySimpleNaturalId("71844321020").orElseThrow();
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+        Assertions.assertThat(other.getCompletedVisits()).isZero();
+
+        Assertions.assertThat(previous).isZero();
+        Assertions.assertThat(clientRepository.findBySimpleNaturalId("53280465081").orElseThrow().getCompletedVisits())
+                .isEqualTo(1);
+    }
+}
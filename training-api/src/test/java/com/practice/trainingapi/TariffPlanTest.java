@@ -0,0 +1,99 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.config.TariffProperties;
+import com.practice.trainingapi.service.TariffEngine;
+import com.practice.trainingapi.util.ParkingUtils;
+import com.practice.trainingapi.util.TariffPlan;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+public class TariffPlanTest {
+
+    private static final LocalDateTime ENTRY = LocalDateTime.of(2024, 5, 10, 14, 30);
+
+    @Test
+    public void cost_WithStandardPlan_ReturnSamePriceAsPreviousCalculation() {
+        for (long minutes = -30; minutes <= 3 * 24 * 60; minutes++) {
+            BigDecimal expected = legacyCost(minutes);
+            BigDecimal actual = ParkingUtils.toMoney(TariffPlan.STANDARD.cost(ENTRY, ENTRY.plusMinutes(minutes)));
+            Assertions.assertThat(actual).as("%s minutes", minutes).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void discount_WithStandardPlan_ReturnSameDiscountAsPreviousCalculation() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long cents = i < 100_000 ? i : random.nextInt(10_000_000);
+            long times = random.nextInt(100);
+            BigDecimal expected = legacyDiscount(BigDecimal.valueOf(cents, 2), times);
+            BigDecimal actual = ParkingUtils.toMoney(TariffPlan.STANDARD.discount(cents, times));
+            Assertions.assertThat(actual).as("%s cents, %s times", cents, times).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void cost_WithDailyCap_NeverChargeMoreThanCapPerDay() {
+        TariffPlan plan = new TariffPlan(500, 925, 175, 4_000, 30, 10);
+
+        Assertions.assertThat(plan.cost(60)).isEqualTo(925);
+        Assertions.assertThat(plan.cost(24 * 60)).isEqualTo(4_000);
+        Assertions.assertThat(plan.cost(24 * 60 + 10)).isEqualTo(4_500);
+        Assertions.assertThat(plan.cost(3 * 24 * 60)).isEqualTo(12_000);
+    }
+
+    @Test
+    public void planFor_WithTypePlans_ChargeEvAndMotorcycleByTheirOwnPlan() {
+        TariffProperties properties = new TariffProperties();
+        properties.getPlans().put("night", plan(300, 300, 0));
+        properties.getPlans().put("ev", plan(700, 1_200, 250));
+        properties.getPlans().put("motorcycle", plan(250, 450, 100));
+        properties.getNight().setPlan("night");
+        properties.getTypes().put("ev", "ev");
+        properties.getTypes().put("motorcycle", "motorcycle");
+        TariffEngine engine = new TariffEngine(properties);
+        LocalDateTime night = ENTRY.withHour(23);
+
+        Assertions.assertThat(engine.planFor("EV", ENTRY).cost(ENTRY, ENTRY.plusMinutes(75))).isEqualTo(1_450);
+        Assertions.assertThat(engine.planFor("MOTORCYCLE", ENTRY).cost(ENTRY, ENTRY.plusMinutes(75))).isEqualTo(550);
+        Assertions.assertThat(engine.planFor("MOTORCYCLE", night)).isSameAs(engine.plan("motorcycle"));
+        Assertions.assertThat(engine.planFor("STANDARD", ENTRY)).isSameAs(engine.plan("standard"));
+        Assertions.assertThat(engine.planFor("DISABLED", night)).isSameAs(engine.plan("night"));
+    }
+
+    private static TariffProperties.Plan plan(long firstFifteenMinutes, long firstHour, long additionalFifteenMinutes) {
+        TariffProperties.Plan plan = new TariffProperties.Plan();
+        plan.setFirstFifteenMinutes(firstFifteenMinutes);
+        plan.setFirstHour(firstHour);
+        plan.setAdditionalFifteenMinutes(additionalFifteenMinutes);
+        return plan;
+    }
+
+    private static BigDecimal legacyCost(long minutes) {
+        double total = 0.0;
+        if (minutes <= 15) {
+            total = 5.00;
+        } else if (minutes <= 60) {
+            total = 9.25;
+        } else {
+            long addicionalMinutes = minutes - 60;
+            Double totalParts = ((double) addicionalMinutes / 15);
+            if (totalParts > totalParts.intValue()) {
+                total += 9.25 + (1.75 * (totalParts.intValue() + 1));
+            } else {
+                total += 9.25 + (1.75 * totalParts.intValue());
+            }
+        }
+        return new BigDecimal(total).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private static BigDecimal legacyDiscount(BigDecimal cost, long numberOfTimes) {
+        BigDecimal discount = ((numberOfTimes > 0) && (numberOfTimes % 10 == 0)) ? cost.multiply(new BigDecimal(0.30)) : new BigDecimal(0);
+        return discount.setScale(2, RoundingMode.HALF_EVEN);
+    }
+}
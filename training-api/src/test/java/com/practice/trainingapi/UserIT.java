@@ -25,7 +25,7 @@ public class UserIT {
                 .post()
                 .uri("/api/v1/users/create")
                 .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(new UserCreateDTO("helen215@gmail.com", "123456"))
+                .bodyValue(new UserCreateDTO("helen@gmail.com", "123456"))
                 .exchange()
                 .expectStatus()
                 .isCreated().expectBody(UserResponseDTO.class)
@@ -34,6 +34,6 @@ public class UserIT {
         Assertions.assertThat(responseBody).isNotNull();
         Assertions.assertThat(responseBody.getId()).isNotNull();
         Assertions.assertThat(responseBody.getUsername()).isEqualTo("helen@gmail.com");
-        Assertions.assertThat(responseBody.getRole()).isEqualTo("ADMIN");
+        Assertions.assertThat(responseBody.getRole()).isEqualTo("USER");
     }
 }
@@ -0,0 +1,134 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.repository.projection.VacancySpot;
+import com.practice.trainingapi.service.VacancyAllocator;
+import com.practice.trainingapi.service.VacancyPreference;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static com.practice.trainingapi.entity.Vacancy.SpotType.DISABLED;
+import static com.practice.trainingapi.entity.Vacancy.SpotType.EV;
+import static com.practice.trainingapi.entity.Vacancy.SpotType.STANDARD;
+import static com.practice.trainingapi.entity.Vacancy.StatusVacancy.FREE;
+
+public class VacancyAllocatorTest {
+
+    private static final int VACANCIES = 2_000;
+    private static final int THREADS = 32;
+    private static final String[] ZONES = {"A", "B", "C"};
+
+    private VacancyAllocator allocator;
+
+    @BeforeEach
+    public void setUp() {
+        List<VacancySpot> spots = LongStream.rangeClosed(1, VACANCIES)
+                .mapToObj(id -> new VacancySpot(id, ZONES[(int) (id % ZONES.length)], STANDARD, (int) (id % 50)))
+                .toList();
+        allocator = load(spots);
+    }
+
+    @Test
+    public void claim_WithManyConcurrentThreads_NeverAllocatesSameVacancyTwice() throws InterruptedException {
+        Set<Long> claimed = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        runConcurrently(() -> {
+            Optional<Long> id;
+            while ((id = allocator.claim(VacancyPreference.none())).isPresent()) {
+                if (!claimed.add(id.get())) {
+                    duplicates.incrementAndGet();
+                }
+            }
+        });
+
+        Assertions.assertThat(duplicates.get()).isZero();
+        Assertions.assertThat(claimed).hasSize(VACANCIES);
+        Assertions.assertThat(allocator.freeCount()).isZero();
+        Assertions.assertThat(allocator.claim(VacancyPreference.none())).isEmpty();
+    }
+
+    @Test
+    public void claim_WithConcurrentReleases_KeepsEachVacancyWithSingleOwner() throws InterruptedException {
+        Set<Long> inUse = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                Optional<Long> id = allocator.claim(VacancyPreference.none());
+                if (id.isEmpty()) {
+                    continue;
+                }
+                if (!inUse.add(id.get())) {
+                    duplicates.incrementAndGet();
+                }
+                if (i % 3 == 0) {
+                    allocator.markBusy(id.get());
+                }
+                inUse.remove(id.get());
+                allocator.release(id.get());
+            }
+        });
+
+        Assertions.assertThat(duplicates.get()).isZero();
+        Assertions.assertThat(allocator.freeCount()).isEqualTo(VACANCIES);
+    }
+
+    @Test
+    public void claim_WithZoneAndType_ReturnsNearestMatchingSpotAndFallsBackToOtherZones() {
+        allocator = load(List.of(
+                new VacancySpot(1L, "A", STANDARD, 30),
+                new VacancySpot(2L, "A", STANDARD, 10),
+                new VacancySpot(3L, "B", STANDARD, 5),
+                new VacancySpot(4L, "B", EV, 20),
+                new VacancySpot(5L, "A", EV, 40)));
+
+        Assertions.assertThat(allocator.claim(VacancyPreference.of("A", STANDARD))).contains(2L);
+        Assertions.assertThat(allocator.claim(VacancyPreference.none())).contains(3L);
+        Assertions.assertThat(allocator.claim(VacancyPreference.of("A", EV))).contains(5L);
+        Assertions.assertThat(allocator.claim(VacancyPreference.of("A", EV))).contains(4L);
+        Assertions.assertThat(allocator.claim(VacancyPreference.of("A", EV))).isEmpty();
+        Assertions.assertThat(allocator.claim(VacancyPreference.of(null, DISABLED))).isEmpty();
+
+        allocator.release(2L);
+        Assertions.assertThat(allocator.claim(VacancyPreference.of("B", STANDARD))).contains(2L);
+        Assertions.assertThat(allocator.freeCount()).isEqualTo(1);
+    }
+
+    private VacancyAllocator load(List<VacancySpot> spots) {
+        VacancyRepository repository = Mockito.mock(VacancyRepository.class);
+        Mockito.when(repository.findAllSpots()).thenReturn(spots);
+        Mockito.when(repository.findIdsByStatus(FREE)).thenReturn(spots.stream().map(VacancySpot::getId).toList());
+        VacancyAllocator vacancyAllocator = new VacancyAllocator(repository);
+        vacancyAllocator.load();
+        return vacancyAllocator;
+    }
+
+    private void runConcurrently(Runnable task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < THREADS; i++) {
+            executor.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+    }
+}
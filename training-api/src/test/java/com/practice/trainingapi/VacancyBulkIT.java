@@ -0,0 +1,100 @@
+package com.practice.trainingapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.trainingapi.jwt.JwtUtils;
+import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.service.VacancyService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:vacancy-bulk;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@Sql(scripts = "/sql/users/users-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "/sql/users/users-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+public class VacancyBulkIT {
+
+    private static final String ADMIN = "helen215@gmail.com";
+    private static final int ROWS = 1_201;
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    VacancyRepository vacancyRepository;
+    @SpyBean
+    VacancyService vacancyService;
+
+    @BeforeEach
+    public void setUp() {
+        vacancyRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void insertAllCsv_WithMoreRowsThanAChunk_SavesChunkByChunkAndReportsEachRow() throws Exception {
+        List<String> lines = new ArrayList<>(List.of("code,status,zone,level,type,distance", ""));
+        IntStream.range(0, ROWS).forEach(i -> lines.add(code(i) + ",FREE,A,0,STANDARD," + i));
+        lines.set(2 + 600, code(10) + ",FREE");
+        lines.set(2 + 1_100, code(1_100) + ",PARKED");
+
+        JsonNode results = bulk("text/csv", String.join("\n", lines));
+
+        Assertions.assertThat(results).hasSize(ROWS);
+        Assertions.assertThat(results).extracting(result -> result.get("index").asInt())
+                .containsExactlyElementsOf(IntStream.range(0, ROWS).boxed().toList());
+        Assertions.assertThat(results.get(600).get("status").asInt()).isEqualTo(409);
+        Assertions.assertThat(results.get(1_100).get("status").asInt()).isEqualTo(422);
+        Assertions.assertThat(results.get(1_200).get("vacancy").get("code").asText()).isEqualTo(code(1_200));
+        Assertions.assertThat(vacancyRepository.count()).isEqualTo(ROWS - 2);
+        Mockito.verify(vacancyService, Mockito.times(3)).saveAll(Mockito.any());
+    }
+
+    @Test
+    public void insertAll_WithMoreRowsThanAChunk_ContinuesTheIndexesAcrossChunks() throws Exception {
+        List<Map<String, String>> dtos = IntStream.range(0, 501)
+                .mapToObj(i -> Map.of("code", code(i), "status", "FREE"))
+                .toList();
+
+        JsonNode results = bulk(MediaType.APPLICATION_JSON_VALUE, objectMapper.writeValueAsString(dtos));
+
+        Assertions.assertThat(results).hasSize(501);
+        Assertions.assertThat(results.get(500).get("index").asInt()).isEqualTo(500);
+        Assertions.assertThat(results).extracting(result -> result.get("status").asInt()).containsOnly(201);
+        Mockito.verify(vacancyService, Mockito.times(2)).saveAll(Mockito.any());
+    }
+
+    private JsonNode bulk(String contentType, String body) throws Exception {
+        String token = JwtUtils.createToken(ADMIN, "ADMIN").getToken();
+        MockHttpServletRequestBuilder request = post("/api/v1/vacacies/bulk")
+                .header(JwtUtils.JWT_AUTHORIZATION, JwtUtils.JWT_BEARER + token)
+                .contentType(contentType)
+                .content(body);
+        String response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private static String code(int i) {
+        return String.format("%c%03d", 'K' + i / 1_000, i % 1_000);
+    }
+}
@@ -0,0 +1,257 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.exception.EntityNotFoundException;
+import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.service.OccupancyService;
+import com.practice.trainingapi.service.VacancyAllocator;
+import com.practice.trainingapi.service.VacancyBatchResult;
+import com.practice.trainingapi.service.VacancyEventPublisher;
+import com.practice.trainingapi.service.VacancyPreference;
+import com.practice.trainingapi.service.VacancyService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.practice.trainingapi.entity.Vacancy.StatusVacancy.BUSY;
+import static com.practice.trainingapi.entity.Vacancy.StatusVacancy.FREE;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:vacancy-claim;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({VacancyService.class, VacancyAllocator.class, OccupancyService.class, VacancyEventPublisher.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class VacancyClaimIT {
+
+    private static final Logger log = LoggerFactory.getLogger(VacancyClaimIT.class);
+    private static final int VACANCIES = 400;
+    private static final int GATES = 16;
+
+    @SpyBean
+    VacancyRepository vacancyRepository;
+    @Autowired
+    VacancyService vacancyService;
+    @Autowired
+    VacancyAllocator vacancyAllocator;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        vacancyRepository.deleteAllInBatch();
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < VACANCIES; i++) {
+            Vacancy vacancy = new Vacancy();
+            vacancy.setCode(String.format("%04d", i));
+            vacancy.setStatus(FREE);
+            vacancies.add(vacancy);
+        }
+        vacancyRepository.saveAll(vacancies);
+        vacancyAllocator.load();
+    }
+
+    @Test
+    public void findByFreeVacancy_WithParallelGates_ClaimsDistinctVacancies() throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ClaimResult current = claimInParallel(() -> transaction.execute(status -> {
+            Optional<Vacancy> vacancy = vacancyRepository.findFirstByStatus(FREE);
+            vacancy.ifPresent(v -> v.setStatus(BUSY));
+            return vacancy.map(Vacancy::getId).orElse(null);
+        }));
+
+        setUp();
+        ClaimResult claim = claimInParallel(() -> {
+            try {
+                return vacancyService.findByFreeVacancy(VacancyPreference.none()).getId();
+            } catch (EntityNotFoundException ex) {
+                return null;
+            }
+        });
+
+        log.info("findFirstByStatus: {} claims/s, {} duplicated, {} failed", current.throughput(), current.duplicates(), current.failures());
+        log.info("allocator + conditional update: {} claims/s, {} duplicated, {} failed", claim.throughput(), claim.duplicates(), claim.failures());
+
+        Assertions.assertThat(claim.duplicates()).isZero();
+        Assertions.assertThat(claim.failures()).isZero();
+        Assertions.assertThat(new HashSet<>(claim.ids())).hasSize(VACANCIES);
+        Assertions.assertThat(vacancyRepository.findIdsByStatus(FREE)).isEmpty();
+    }
+
+    @Test
+    public void saveAll_WithDuplicatedCodes_InsertsNewVacanciesAndReportsEachRow() {
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            vacancies.add(newVacancy(String.format("B%03d", i)));
+        }
+        vacancies.add(newVacancy("0001"));
+        vacancies.add(newVacancy("B000"));
+
+        long begin = System.nanoTime();
+        List<VacancyBatchResult> results = vacancyService.saveAll(vacancies);
+        long bulkNanos = System.nanoTime() - begin;
+
+        begin = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            vacancyService.save(newVacancy(String.format("S%03d", i)));
+        }
+        long singleNanos = System.nanoTime() - begin;
+
+        log.info("bulk: {} rows/s, one at a time: {} rows/s",
+                1000 * TimeUnit.SECONDS.toNanos(1) / Math.max(bulkNanos, 1),
+                200 * TimeUnit.SECONDS.toNanos(1) / Math.max(singleNanos, 1));
+
+        Assertions.assertThat(results).hasSize(1002);
+        Assertions.assertThat(results.subList(0, 1000)).allMatch(VacancyBatchResult::isSuccess);
+        Assertions.assertThat(results.get(1000).getError()).isEqualTo("Vacancy with code '0001' already registered");
+        Assertions.assertThat(results.get(1001).getError()).isEqualTo("Vacancy with code 'B000' already registered");
+        Assertions.assertThat(vacancyRepository.count()).isEqualTo(VACANCIES + 1000 + 200);
+        Assertions.assertThat(vacancyAllocator.freeCount()).isEqualTo(VACANCIES + 1000 + 200);
+    }
+
+    @Test
+    public void findByFreeVacancy_WithZonePreference_ClaimsTheNearestSpotInThatZone() {
+        saveSpots();
+        vacancyAllocator.load();
+
+        assertClaimsPreferredZoneThenNearest();
+    }
+
+    @Test
+    public void findByFreeVacancy_WhenTheAllocatorMissesTheSpots_FallsBackInTheSameOrder() {
+        vacancyRepository.deleteAllInBatch();
+        vacancyAllocator.load();
+        saveSpots();
+
+        assertClaimsPreferredZoneThenNearest();
+    }
+
+    @Test
+    public void claimFreeVacancies_WhenTheAllocatorMissesTheSpots_HonoursEachZone() {
+        vacancyRepository.deleteAllInBatch();
+        vacancyAllocator.load();
+        saveSpots();
+
+        List<Vacancy> claimed = new TransactionTemplate(transactionManager).execute(status -> vacancyService.claimFreeVacancies(
+                List.of(VacancyPreference.of("B", null), VacancyPreference.of("C", null), VacancyPreference.of("B", Vacancy.SpotType.EV))));
+
+        Assertions.assertThat(claimed).extracting(vacancy -> vacancy == null ? null : vacancy.getCode())
+                .containsExactly("B003", "A001", null);
+        Assertions.assertThat(claimed.subList(0, 2)).extracting(Vacancy::getStatus).containsOnly(BUSY);
+    }
+
+    // B003 is the nearest spot of zone B, A001 the nearest spot overall and zone C has none
+    @Test
+    public void saveAll_WhenACodeIsRegisteredConcurrently_RejectsOnlyThatRow() {
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Answer<?> repository = Mockito.mockingDetails(vacancyRepository).getMockCreationSettings().getDefaultAnswer();
+        // the other request commits C001 right after this one looked the codes up
+        Mockito.doAnswer(invocation -> {
+            Object registered = repository.answer(invocation);
+            concurrent.executeWithoutResult(status -> vacancyRepository.save(newVacancy("C001")));
+            return registered;
+        }).doAnswer(repository).when(vacancyRepository).findCodesIn(Mockito.any());
+
+        List<VacancyBatchResult> results = vacancyService.saveAll(
+                List.of(newVacancy("C000"), newVacancy("C001"), newVacancy("C002")));
+
+        Assertions.assertThat(results).extracting(VacancyBatchResult::isSuccess).containsExactly(true, false, true);
+        Assertions.assertThat(results.get(1).getError()).isEqualTo("Vacancy with code 'C001' already registered");
+        Assertions.assertThat(vacancyRepository.findCodesIn(List.of("C000", "C001", "C002"))).hasSize(3);
+        Assertions.assertThat(vacancyAllocator.freeCount()).isEqualTo(VACANCIES + 2);
+    }
+
+    private void assertClaimsPreferredZoneThenNearest() {
+        Assertions.assertThat(vacancyService.findByFreeVacancy(VacancyPreference.of("B", null)).getCode()).isEqualTo("B003");
+        Assertions.assertThat(vacancyService.findByFreeVacancy(VacancyPreference.of("C", null)).getCode()).isEqualTo("A001");
+        Assertions.assertThat(vacancyService.findByFreeVacancy(VacancyPreference.of("B", null)).getCode()).isEqualTo("B005");
+        Assertions.assertThat(vacancyService.findByFreeVacancy(VacancyPreference.of("B", null)).getCode()).isEqualTo("A009");
+        Assertions.assertThatThrownBy(() -> vacancyService.findByFreeVacancy(VacancyPreference.of("B", null)))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    private void saveSpots() {
+        vacancyRepository.deleteAllInBatch();
+        vacancyRepository.saveAll(List.of(spot("A009", "A", 9), spot("A001", "A", 1), spot("B005", "B", 5),
+                spot("B003", "B", 3)));
+    }
+
+    private Vacancy spot(String code, String zone, int distance) {
+        Vacancy vacancy = newVacancy(code);
+        vacancy.setZone(zone);
+        vacancy.setDistance(distance);
+        return vacancy;
+    }
+
+    private Vacancy newVacancy(String code) {
+        Vacancy vacancy = new Vacancy();
+        vacancy.setCode(code);
+        vacancy.setStatus(FREE);
+        return vacancy;
+    }
+
+    private ClaimResult claimInParallel(Supplier<Long> claim) throws InterruptedException {
+        List<Long> ids = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(GATES);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < GATES; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < VACANCIES; attempt++) {
+                    try {
+                        Long id = claim.get();
+                        if (id == null) {
+                            break;
+                        }
+                        ids.add(id);
+                    } catch (RuntimeException ex) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        return new ClaimResult(ids, failures.get(), System.nanoTime() - begin);
+    }
+
+    private record ClaimResult(List<Long> ids, int failures, long elapsedNanos) {
+
+        long throughput() {
+            return ids.size() * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1);
+        }
+
+        int duplicates() {
+            return ids.size() - new HashSet<>(ids).size();
+        }
+    }
+}
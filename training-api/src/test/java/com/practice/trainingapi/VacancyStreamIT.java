@@ -0,0 +1,94 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.jwt.JwtUtils;
+import com.practice.trainingapi.service.VacancyEventPublisher;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:vacancy-stream;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "parking.stream.timeout-ms=-1",
+        "parking.stream.coalesce-ms=50"
+})
+@AutoConfigureMockMvc
+@Sql(scripts = "/sql/users/users-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "/sql/users/users-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+public class VacancyStreamIT {
+
+    private static final String ADMIN = "helen215@gmail.com";
+    private static final String USER = "hermione@gmail.com";
+    private static final long CONTAINER_DEFAULT_TIMEOUT = 10_000;
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    VacancyEventPublisher vacancyEventPublisher;
+
+    @Test
+    public void stream_WithUserToken_SendsOccupancyThenCoalescedVacancyChanges() throws Exception {
+        MvcResult result = mockMvc.perform(as(USER, "USER", get("/api/v1/vacacies/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = result.getResponse();
+        awaitContent(response, "event:occupancy");
+
+        vacancyEventPublisher.statusChanged(vacancy(1L, "S001", Vacancy.StatusVacancy.BUSY));
+        vacancyEventPublisher.statusChanged(vacancy(1L, "S001", Vacancy.StatusVacancy.FREE));
+        awaitContent(response, "event:vacancies");
+
+        String content = response.getContentAsString();
+        Assertions.assertThat(response.getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        Assertions.assertThat(content.indexOf("event:occupancy")).isLessThan(content.indexOf("event:vacancies"));
+        String vacancies = content.substring(content.indexOf("event:vacancies"));
+        Assertions.assertThat(vacancies).contains("\"status\":\"FREE\"").doesNotContain("\"status\":\"BUSY\"");
+    }
+
+    @Test
+    public void stream_WithTimeoutSetting_AppliesItToTheStreamOnly() throws Exception {
+        MvcResult stream = mockMvc.perform(as(USER, "USER", get("/api/v1/vacacies/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult page = mockMvc.perform(as(ADMIN, "ADMIN", get("/api/v1/clients")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Assertions.assertThat(stream.getRequest().getAsyncContext().getTimeout()).isEqualTo(-1);
+        Assertions.assertThat(page.getRequest().getAsyncContext().getTimeout()).isEqualTo(CONTAINER_DEFAULT_TIMEOUT);
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!response.getContentAsString().contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Assertions.assertThat(response.getContentAsString()).contains(expected);
+    }
+
+    private static Vacancy vacancy(Long id, String code, Vacancy.StatusVacancy status) {
+        Vacancy vacancy = new Vacancy();
+        vacancy.setId(id);
+        vacancy.setCode(code);
+        vacancy.setStatus(status);
+        return vacancy;
+    }
+
+    private static MockHttpServletRequestBuilder as(String username, String role, MockHttpServletRequestBuilder request) {
+        String token = JwtUtils.createToken(username, role).getToken();
+        return request.header(JwtUtils.JWT_AUTHORIZATION, JwtUtils.JWT_BEARER + token);
+    }
+}
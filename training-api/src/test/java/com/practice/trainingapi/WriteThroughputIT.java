@@ -0,0 +1,206 @@
+package com.practice.trainingapi;
+
+import com.practice.trainingapi.entity.Client;
+import com.practice.trainingapi.entity.ClientVacancy;
+import com.practice.trainingapi.entity.User;
+import com.practice.trainingapi.entity.Vacancy;
+import com.practice.trainingapi.repository.ClientRepository;
+import com.practice.trainingapi.repository.ClientVacancyRepository;
+import com.practice.trainingapi.repository.UserRepository;
+import com.practice.trainingapi.repository.VacancyRepository;
+import com.practice.trainingapi.service.IdSequenceAligner;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Write throughput of user creation and check-in before and after the move from IDENTITY to pooled-lo sequences.
+// The IDENTITY baseline runs against tables shaped like the old ones, one INSERT and generated key read per row.
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-throughput;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(IdSequenceAligner.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class WriteThroughputIT {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteThroughputIT.class);
+    private static final int ROWS = 2_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ClientRepository clientRepository;
+    @Autowired
+    VacancyRepository vacancyRepository;
+    @Autowired
+    ClientVacancyRepository clientVacancyRepository;
+    @Autowired
+    IdSequenceAligner idSequenceAligner;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate transaction;
+    Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        clientVacancyRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+        vacancyRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        jdbcTemplate.execute("create table if not exists users_identity (id bigint auto_increment primary key, " +
+                "username varchar(100) not null unique, password varchar(200) not null, role varchar(25) not null)");
+        jdbcTemplate.execute("create table if not exists check_ins_identity (id bigint auto_increment primary key, " +
+                "numero_recibo varchar(255) not null unique, placa varchar(8) not null, marca varchar(45) not null, " +
+                "modelo varchar(45) not null, cor varchar(45) not null, entry_date timestamp not null, " +
+                "id_client bigint not null, vacancy_id bigint)");
+        jdbcTemplate.execute("truncate table users_identity");
+        jdbcTemplate.execute("truncate table check_ins_identity");
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void saveAll_Users_BatchesInsertsAndFetchesOneIdBlockPerBatch() {
+        long identityNanos = timed(() -> transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                insertReturningKey("insert into users_identity (username, password, role) values (?, ?, ?)",
+                        "identity" + i + "@email.com", "123456", "ROLE_USER");
+            }
+        }));
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            User user = new User();
+            user.setUsername("pooled" + i + "@email.com");
+            user.setPassword("123456");
+            users.add(user);
+        }
+        statistics.clear();
+        long pooledNanos = timed(() -> userRepository.saveAll(users));
+
+        log.info("users, identity: {} rows/s in {} statements, pooled-lo + batching: {} rows/s in {} statements",
+                rate(identityNanos), ROWS, rate(pooledNanos), statistics.getPrepareStatementCount());
+        assertBatched(users.stream().map(User::getId).toList());
+    }
+
+    @Test
+    public void saveAll_CheckIns_BatchesInsertsAndFetchesOneIdBlockPerBatch() {
+        Client client = new Client();
+        client.setName("Throughput Client");
+        client.setCpf("53280465081");
+        clientRepository.save(client);
+        Vacancy vacancy = new Vacancy();
+        vacancy.setCode("T001");
+        vacancy.setStatus(Vacancy.StatusVacancy.BUSY);
+        vacancyRepository.save(vacancy);
+        LocalDateTime entry = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+        long identityNanos = timed(() -> transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                insertReturningKey("insert into check_ins_identity (numero_recibo, placa, marca, modelo, cor, entry_date, " +
+                                "id_client, vacancy_id) values (?, ?, ?, ?, ?, ?, ?, ?)",
+                        "I" + i, "ABC-1234", "FIAT", "PALIO", "BLUE", Timestamp.valueOf(entry), client.getId(), vacancy.getId());
+            }
+        }));
+
+        List<ClientVacancy> checkIns = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            ClientVacancy checkIn = new ClientVacancy();
+            checkIn.setReceipt("P" + i);
+            checkIn.setPlate("ABC-1234");
+            checkIn.setBrand("FIAT");
+            checkIn.setModel("PALIO");
+            checkIn.setColor("BLUE");
+            checkIn.setEntryDate(entry);
+            checkIn.setClient(client);
+            checkIn.setVacancy(vacancy);
+            checkIns.add(checkIn);
+        }
+        statistics.clear();
+        long pooledNanos = timed(() -> clientVacancyRepository.saveAll(checkIns));
+
+        log.info("check-ins, identity: {} rows/s in {} statements, pooled-lo + batching: {} rows/s in {} statements",
+                rate(identityNanos), ROWS, rate(pooledNanos), statistics.getPrepareStatementCount());
+        assertBatched(checkIns.stream().map(ClientVacancy::getId).toList());
+    }
+
+    @Test
+    public void align_WithRowsInsertedBeforeTheSequence_KeepsTheirIdsAndAllocatesPastThem() {
+        jdbcTemplate.update("insert into users (id, username, password, role) values (?, ?, ?, ?)",
+                5_000L, "legacy@email.com", "123456", "ROLE_ADMIN");
+
+        idSequenceAligner.align();
+        User user = new User();
+        user.setUsername("after@email.com");
+        user.setPassword("123456");
+        userRepository.save(user);
+
+        Assertions.assertThat(userRepository.findById(5_000L)).get()
+                .extracting(User::getUsername).isEqualTo("legacy@email.com");
+        Assertions.assertThat(user.getId()).isGreaterThan(5_000L);
+    }
+
+    // One sequence call per block of 50 ids and one prepared INSERT per JDBC batch, instead of one of each per row
+    private void assertBatched(List<Long> ids) {
+        Assertions.assertThat(ids).doesNotContainNull().doesNotHaveDuplicates();
+        Assertions.assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2L * ROWS / BATCH_SIZE + 2);
+    }
+
+    private void insertReturningKey(String sql, Object... args) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keyHolder);
+        Assertions.assertThat(keyHolder.getKey()).isNotNull();
+    }
+
+    private static long timed(Runnable work) {
+        long begin = System.nanoTime();
+        work.run();
+        return System.nanoTime() - begin;
+    }
+
+    private static long rate(long nanos) {
+        return ROWS * TimeUnit.SECONDS.toNanos(1) / Math.max(nanos, 1);
+    }
+}
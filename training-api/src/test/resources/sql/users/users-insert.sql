@@ -1,3 +1,3 @@
-INSERT INTO users (id, username, password, role) VALUES (1, 'helen215@gmail.com', '123456', 'ROLE_ADMIN');
+INSERT INTO users (id, username, password, role) VALUES (100, 'helen215@gmail.com', '123456', 'ROLE_ADMIN');
 INSERT INTO users (id, username, password, role) VALUES (101, 'helena@gmail.com', '123456', 'ROLE_ADMIN');
 INSERT INTO users (id, username, password, role) VALUES (102, 'hermione@gmail.com', '123456', 'ROLE_USER');
\ No newline at end of file